@@ -0,0 +1,75 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cold start : each fork is a new JVM that has not loaded the library yet, so the single measured call includes
+ * class initialization and the tables built on first use. Compare with the jar built with
+ * {@code -Pprecomputed-table}, or with {@code -jvmArgsAppend -Dcom.github.usingsky.calendar.dataFile=...}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class ColdStartBenchmark {
+
+    @Benchmark
+    public Class<?> classInitialization() throws ClassNotFoundException {
+        return Class.forName("com.github.usingsky.calendar.KoreanLunarCalendar");
+    }
+
+    @Benchmark
+    public LunarDate firstToLunarDate() {
+        return KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+    }
+
+    @Benchmark
+    public SolarDate firstToSolarDate() {
+        return KoreanLunarCalendar.toSolarDate(2017, 5, 1, true);
+    }
+
+    @Benchmark
+    public LunarDate firstDenseToLunarDate() {
+        KoreanLunarCalendar.setDenseTableEnabled(true);
+        return KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+    }
+
+    @Benchmark
+    @Fork(value = 20, jvmArgsAppend = "-Dcom.github.usingsky.calendar.denseTable=true")
+    public void warmUpDense() {
+        KoreanLunarCalendar.warmUp();
+    }
+}
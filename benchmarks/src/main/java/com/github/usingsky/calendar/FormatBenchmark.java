@@ -0,0 +1,105 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Gapja and ISO strings of a converted date, and the same output written into reused buffers.
+ * {@link ConcurrentFormatBenchmark} runs the same methods on every available core.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(1)
+public class FormatBenchmark {
+
+    LunarDate lunarDate;
+    SolarDate solarDate;
+
+    char[] chars = new char[KoreanLunarFormatter.MAX_GAPJA_LENGTH + KoreanLunarFormatter.MAX_ISO_LENGTH];
+    ByteBuffer bytes = ByteBuffer.allocateDirect(KoreanLunarFormatter.MAX_GAPJA_BYTES);
+
+    @Setup
+    public void setUp() {
+        lunarDate = KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+        solarDate = lunarDate.toSolarDate();
+    }
+
+    @Benchmark
+    public String gapjaString() {
+        return lunarDate.getGapjaString();
+    }
+
+    @Benchmark
+    public String chineseGapJaString() {
+        return lunarDate.getChineseGapJaString();
+    }
+
+    @Benchmark
+    public String lunarIsoFormat() {
+        return lunarDate.getIsoFormat();
+    }
+
+    @Benchmark
+    public String solarIsoFormat() {
+        return solarDate.getIsoFormat();
+    }
+
+    @Benchmark
+    public int formatGapjaChars() {
+        return KoreanLunarFormatter.formatGapja(lunarDate.getYear(), lunarDate.getMonth(), lunarDate.getDay(),
+                lunarDate.isIntercalation(), chars, 0);
+    }
+
+    @Benchmark
+    public int formatIsoChars() {
+        return KoreanLunarFormatter.formatIsoDate(lunarDate.getYear(), lunarDate.getMonth(), lunarDate.getDay(),
+                lunarDate.isIntercalation(), chars, 0);
+    }
+
+    @Benchmark
+    public ByteBuffer putGapjaBytes() {
+        bytes.clear();
+        return KoreanLunarFormatter.putGapja(bytes, lunarDate.getYear(), lunarDate.getMonth(), lunarDate.getDay(),
+                lunarDate.isIntercalation());
+    }
+}
@@ -0,0 +1,169 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Request counters and a latency histogram, kept by {@link LunarConversionServer} for the time spent converting
+ * each request and by {@link LoadGenerator} for the round trip of each request.
+ * <p>
+ * Latencies use the buckets of {@link ConversionMetrics} (4 per power of two), so a percentile is the upper bound
+ * of its bucket, within 19% of the actual value. Recording is lock-free.
+ */
+public final class ConversionStats {
+
+    private static final int BUCKETS = ConversionMetrics.getBucket(Long.MAX_VALUE) + 1;
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder dates = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder acceptErrors = new LongAdder();
+    private final AtomicLong activeConnections = new AtomicLong();
+    private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+    void record(long nanos, int dateCount, boolean isError) {
+        requests.increment();
+        dates.add(dateCount);
+        if (isError) {
+            errors.increment();
+        }
+        histogram.incrementAndGet(ConversionMetrics.getBucket(nanos));
+    }
+
+    void acceptFailed() {
+        acceptErrors.increment();
+    }
+
+    void connectionOpened() {
+        activeConnections.incrementAndGet();
+    }
+
+    void connectionClosed() {
+        activeConnections.decrementAndGet();
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    /**
+     * 
+     * @return the number of dates in all requests, a batch counts each of its dates
+     */
+    public long getDateCount() {
+        return dates.sum();
+    }
+
+    /**
+     * 
+     * @return the number of requests answered with {@code ERROR}
+     */
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    /**
+     * 
+     * @return the number of failed accepts of the server socket
+     */
+    public long getAcceptErrorCount() {
+        return acceptErrors.sum();
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public long getActiveConnections() {
+        return activeConnections.get();
+    }
+
+    /**
+     * 
+     * @return nanoseconds since the stats were created
+     */
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * 
+     * @return requests per second since the stats were created
+     */
+    public double getThroughput() {
+        return getRequestCount() * 1e9 / Math.max(1, getElapsedNanos());
+    }
+
+    /**
+     * 
+     * @param percentile
+     *            0 ~ 100
+     * @return the latency in nanoseconds, or 0 without any request
+     */
+    public long getLatencyPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile(" + percentile + ") is outside 0 ~ 100");
+        }
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = histogram.get(i);
+            total += counts[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts[i];
+            if (count >= rank) {
+                return ConversionMetrics.getBucketUpperBound(i);
+            }
+        }
+        return ConversionMetrics.getBucketUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * One line summary, latencies in microseconds.
+     */
+    @Override
+    public String toString() {
+        return "requests=" + getRequestCount() + " dates=" + getDateCount() + " errors=" + getErrorCount()
+                + " acceptErrors=" + getAcceptErrorCount() + " connections=" + getActiveConnections()
+                + " throughput=" + Math.round(getThroughput()) + "/s"
+                + " p50=" + getLatencyPercentile(50) / 1000 + "us p99=" + getLatencyPercentile(99) / 1000
+                + "us p99.9=" + getLatencyPercentile(99.9) / 1000 + "us";
+    }
+}
@@ -0,0 +1,101 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Reads {@code \n} or {@code \r\n} terminated ASCII lines from a socket with its own buffer, so the server can
+ * tell whether pipelined requests are already waiting before it flushes the responses.
+ */
+final class LineReader {
+
+    private final InputStream in;
+    private final int maxLineLength;
+    private byte[] buffer = new byte[8192];
+    private int position;
+    private int limit;
+
+    LineReader(InputStream in, int maxLineLength) {
+        this.in = in;
+        this.maxLineLength = maxLineLength;
+    }
+
+    /**
+     * 
+     * @return the line without its terminator, or null at the end of the stream
+     * @throws IOException
+     *             if the stream fails or the line is longer than the maximum length
+     */
+    String readLine() throws IOException {
+        int scanned = position;
+        while (true) {
+            for (; scanned < limit; scanned++) {
+                if (buffer[scanned] == '\n') {
+                    int end = scanned > position && buffer[scanned - 1] == '\r' ? scanned - 1 : scanned;
+                    String line = new String(buffer, position, end - position, StandardCharsets.ISO_8859_1);
+                    position = scanned + 1;
+                    return line;
+                }
+            }
+            if (limit - position > maxLineLength) {
+                throw new IOException("Line longer than " + maxLineLength + " bytes");
+            }
+
+            if (position > 0) {
+                System.arraycopy(buffer, position, buffer, 0, limit - position);
+                scanned -= position;
+                limit -= position;
+                position = 0;
+            }
+            if (limit == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            int read = in.read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                if (limit == position) {
+                    return null;
+                }
+                // last line without terminator
+                String line = new String(buffer, position, limit - position, StandardCharsets.ISO_8859_1);
+                position = limit;
+                return line;
+            }
+            limit += read;
+        }
+    }
+
+    /**
+     * 
+     * @return true if a read would not block
+     * @throws IOException
+     */
+    boolean hasInput() throws IOException {
+        return position < limit || in.available() > 0;
+    }
+}
@@ -0,0 +1,237 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Load generator for {@link LunarConversionServer}.
+ * <p>
+ * Each connection sends on its own thread and reads the responses on another, keeping up to {@code pipelineDepth}
+ * requests in flight and rotating through {@code LUNAR}, {@code GAPJA} and {@code SOLAR} requests of
+ * {@code batchSize} random dates between 1900 and 2050. The returned {@link ConversionStats} holds the round trip
+ * latency of every request.
+ */
+public final class LoadGenerator {
+
+    private static final String[] COMMANDS = { "LUNAR ", "GAPJA ", "SOLAR " };
+
+    private final InetSocketAddress address;
+    private final int connections;
+    private final int pipelineDepth;
+    private final int batchSize;
+
+    /**
+     * 
+     * @param address
+     * @param connections
+     * @param pipelineDepth
+     *            requests sent before waiting for a response, 1 for request/response
+     * @param batchSize
+     *            dates per request
+     */
+    public LoadGenerator(InetSocketAddress address, int connections, int pipelineDepth, int batchSize) {
+        if (connections < 1 || pipelineDepth < 1 || batchSize < 1
+                || batchSize > LunarConversionProtocol.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Invalid load : " + connections + " connections, pipeline "
+                    + pipelineDepth + ", batch " + batchSize);
+        }
+        this.address = address;
+        this.connections = connections;
+        this.pipelineDepth = pipelineDepth;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Sends requests for the given duration and waits for every response.
+     * 
+     * @param durationMillis
+     * @return the client side stats
+     * @throws IOException
+     *             if a connection fails
+     * @throws InterruptedException
+     */
+    public ConversionStats run(long durationMillis) throws IOException, InterruptedException {
+        final ConversionStats stats = new ConversionStats();
+        final long deadline = System.nanoTime() + durationMillis * 1000000L;
+        final AtomicReference<IOException> failure = new AtomicReference<IOException>();
+        Thread[] threads = new Thread[connections];
+        for (int i = 0; i < connections; i++) {
+            final long seed = i;
+            threads[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        runConnection(stats, deadline, new Random(seed));
+                    } catch (IOException e) {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+            }, "lunar-load-" + i);
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return stats;
+    }
+
+    private void runConnection(final ConversionStats stats, long deadline, Random random) throws IOException {
+        Socket socket = new Socket();
+        final Semaphore inFlight = new Semaphore(pipelineDepth);
+        // send times of the requests in flight, responses come back in order
+        final AtomicLongArray sentNanos = new AtomicLongArray(pipelineDepth);
+        final AtomicBoolean isDone = new AtomicBoolean();
+        final AtomicReference<IOException> readFailure = new AtomicReference<IOException>();
+        Thread responseReader = null;
+        try {
+            socket.setTcpNoDelay(true);
+            socket.connect(address);
+            stats.connectionOpened();
+            final LineReader reader = new LineReader(socket.getInputStream(), Integer.MAX_VALUE - 8);
+            // responses are read on their own thread : the server blocks writing responses until they are read,
+            // so reading them only between sends deadlocks on a deep pipeline of large batches
+            responseReader = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        readResponses(reader, stats, sentNanos, inFlight, isDone);
+                    } catch (IOException e) {
+                        readFailure.compareAndSet(null, e);
+                        // wakes the sender
+                        inFlight.release(pipelineDepth);
+                    }
+                }
+            }, Thread.currentThread().getName() + "-responses");
+            responseReader.start();
+
+            OutputStream out = new BufferedOutputStream(socket.getOutputStream(), 64 * 1024);
+            StringBuilder request = new StringBuilder();
+            int sent = 0;
+            while (System.nanoTime() < deadline && readFailure.get() == null) {
+                if (!inFlight.tryAcquire()) {
+                    // send what is buffered before waiting for a response
+                    out.flush();
+                    inFlight.acquireUninterruptibly();
+                    if (readFailure.get() != null) {
+                        break;
+                    }
+                }
+                buildRequest(request, COMMANDS[sent % COMMANDS.length], random);
+                sentNanos.set(sent % pipelineDepth, System.nanoTime());
+                out.write(request.toString().getBytes(StandardCharsets.US_ASCII));
+                sent++;
+            }
+            out.flush();
+            // every response is in once all the permits are back
+            inFlight.acquireUninterruptibly(pipelineDepth);
+            isDone.set(true);
+            socket.shutdownOutput();
+            join(responseReader);
+        } finally {
+            stats.connectionClosed();
+            socket.close();
+            if (responseReader != null) {
+                join(responseReader);
+            }
+        }
+        if (readFailure.get() != null) {
+            throw readFailure.get();
+        }
+    }
+
+    private void readResponses(LineReader reader, ConversionStats stats, AtomicLongArray sentNanos,
+            Semaphore inFlight, AtomicBoolean isDone) throws IOException {
+        int received = 0;
+        while (true) {
+            String response = reader.readLine();
+            if (response == null) {
+                if (!isDone.get()) {
+                    throw new EOFException("Connection closed with " + (pipelineDepth - inFlight.availablePermits())
+                            + " requests in flight");
+                }
+                return;
+            }
+            stats.record(System.nanoTime() - sentNanos.get(received++ % pipelineDepth), batchSize,
+                    !response.startsWith("OK"));
+            inFlight.release();
+        }
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void buildRequest(StringBuilder request, String command, Random random) {
+        request.setLength(0);
+        request.append(command);
+        for (int i = 0; i < batchSize; i++) {
+            if (i > 0) {
+                request.append(',');
+            }
+            // day 28 at most so that every random solar and lunar date is valid
+            KoreanLunarFormatter.appendIsoDate(request, 1900 + random.nextInt(150), 1 + random.nextInt(12),
+                    1 + random.nextInt(28), false);
+        }
+        request.append('\n');
+    }
+
+    /**
+     * 
+     * @param args
+     *            {@code [host] [port] [connections] [seconds] [pipeline depth] [batch size]}
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "localhost";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : LunarConversionServer.DEFAULT_PORT;
+        int connections = args.length > 2 ? Integer.parseInt(args[2]) : 4;
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        int pipelineDepth = args.length > 4 ? Integer.parseInt(args[4]) : 16;
+        int batchSize = args.length > 5 ? Integer.parseInt(args[5]) : 1;
+
+        LoadGenerator generator = new LoadGenerator(new InetSocketAddress(host, port), connections, pipelineDepth,
+                batchSize);
+        System.out.println(generator.run(seconds * 1000L));
+    }
+}
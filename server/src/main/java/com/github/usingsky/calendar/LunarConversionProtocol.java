@@ -0,0 +1,197 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Requests and responses of {@link LunarConversionServer}, one ASCII line each.
+ * <p>
+ * A request is a command and one date, or a batch of up to {@link #MAX_BATCH_SIZE} dates separated by
+ * {@code ','}. Dates are {@code yyyy-MM-dd} or {@code yyyyMMdd}, a lunar date may end with
+ * {@code " Intercalation"} like {@link LunarDate#getIsoFormat()}.
+ * 
+ * <pre>
+ * LUNAR 2017-06-24,2017-07-24    OK 2017-05-01 Intercalation,2017-06-02
+ * SOLAR 2017-05-01 Intercalation OK 2017-06-24
+ * GAPJA 2017-06-24               OK (gapja of the lunar date, UTF-8)
+ * CHINESE_GAPJA 2017-06-24       OK (Chinese gapja of the lunar date, UTF-8)
+ * STATS                          OK requests=... (see ConversionStats#toString())
+ * </pre>
+ * 
+ * An invalid date leaves its value empty, a malformed request is answered with {@code ERROR <reason>}.
+ */
+final class LunarConversionProtocol {
+
+    static final int MAX_BATCH_SIZE = 10000;
+
+    private static final String INTERCALATION_SUFFIX = " Intercalation";
+
+    private enum Command {
+        LUNAR, SOLAR, GAPJA, CHINESE_GAPJA, STATS
+    }
+
+    private LunarConversionProtocol() {
+    }
+
+    /**
+     * Appends the response line, without terminator, to {@code response}.
+     * 
+     * @param request
+     * @param response
+     * @param stats
+     * @return the number of dates in the request, or -1 if it was answered with {@code ERROR}
+     */
+    static int handle(String request, StringBuilder response, ConversionStats stats) {
+        int separator = request.indexOf(' ');
+        Command command = getCommand(separator < 0 ? request : request.substring(0, separator));
+        if (command == null) {
+            response.append("ERROR unknown command");
+            return -1;
+        }
+        if (command == Command.STATS) {
+            response.append("OK ").append(stats);
+            return 0;
+        }
+        if (separator < 0) {
+            response.append("ERROR missing date");
+            return -1;
+        }
+
+        int start = response.length();
+        response.append("OK ");
+        int count = 0;
+        int from = separator + 1;
+        while (true) {
+            if (++count > MAX_BATCH_SIZE) {
+                response.setLength(start);
+                response.append("ERROR more than ").append(MAX_BATCH_SIZE).append(" dates");
+                return -1;
+            }
+            int to = request.indexOf(',', from);
+            if (to < 0) {
+                to = request.length();
+            }
+            convert(command, request, from, to, response);
+            if (to == request.length()) {
+                return count;
+            }
+            response.append(',');
+            from = to + 1;
+        }
+    }
+
+    private static Command getCommand(String name) {
+        for (Command command : Command.values()) {
+            if (command.name().equals(name)) {
+                return command;
+            }
+        }
+        return null;
+    }
+
+    private static void convert(Command command, String request, int from, int to, StringBuilder response) {
+        boolean isIntercalation = false;
+        if (command == Command.SOLAR && request.startsWith(INTERCALATION_SUFFIX, to - INTERCALATION_SUFFIX.length())
+                && to - INTERCALATION_SUFFIX.length() >= from) {
+            isIntercalation = true;
+            to -= INTERCALATION_SUFFIX.length();
+        }
+        int date = parseDate(request, from, to);
+        if (date < 0) {
+            return;
+        }
+        int year = date / 10000;
+        int month = date / 100 % 100;
+        int day = date % 100;
+
+        if (command == Command.SOLAR) {
+            int packedSolar = PackedDate.toSolar(PackedDate.encodeLunar(year, month, day, isIntercalation));
+            if (packedSolar != PackedDate.INVALID) {
+                KoreanLunarFormatter.appendIsoDate(response, PackedDate.getSolarYear(packedSolar),
+                        PackedDate.getSolarMonth(packedSolar), PackedDate.getSolarDay(packedSolar), false);
+            }
+            return;
+        }
+
+        int packedLunar = PackedDate.toLunar(PackedDate.encodeSolar(year, month, day));
+        if (packedLunar == PackedDate.INVALID) {
+            return;
+        }
+        int lunarYear = PackedDate.getLunarYear(packedLunar);
+        int lunarMonth = PackedDate.getLunarMonth(packedLunar);
+        int lunarDay = PackedDate.getLunarDay(packedLunar);
+        boolean isLunarIntercalation = PackedDate.isIntercalation(packedLunar);
+        switch (command) {
+        case GAPJA:
+            KoreanLunarFormatter.appendGapja(response, lunarYear, lunarMonth, lunarDay, isLunarIntercalation);
+            break;
+        case CHINESE_GAPJA:
+            KoreanLunarFormatter.appendChineseGapja(response, lunarYear, lunarMonth, lunarDay, isLunarIntercalation);
+            break;
+        default:
+            KoreanLunarFormatter.appendIsoDate(response, lunarYear, lunarMonth, lunarDay, isLunarIntercalation);
+            break;
+        }
+    }
+
+    /**
+     * 
+     * @param s
+     * @param from
+     * @param to
+     * @return yyyyMMdd with month 1 ~ 12 and day 1 ~ 31, or -1
+     */
+    static int parseDate(String s, int from, int to) {
+        int year;
+        int month;
+        int day;
+        if (to - from == 10 && s.charAt(from + 4) == '-' && s.charAt(from + 7) == '-') {
+            year = parseDigits(s, from, 4);
+            month = parseDigits(s, from + 5, 2);
+            day = parseDigits(s, from + 8, 2);
+        } else if (to - from == 8) {
+            year = parseDigits(s, from, 4);
+            month = parseDigits(s, from + 4, 2);
+            day = parseDigits(s, from + 6, 2);
+        } else {
+            return -1;
+        }
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return -1;
+        }
+        return year * 10000 + month * 100 + day;
+    }
+
+    private static int parseDigits(String s, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = s.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,330 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.reflect.InvocationTargetException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Line protocol server for solar/lunar/gapja conversion, see {@link LunarConversionProtocol} for the requests.
+ * <p>
+ * Each connection is served by its own thread with blocking I/O : a virtual thread when the runtime has them
+ * (Java 21, or 19/20 with {@code --enable-preview}), a platform thread otherwise. Conversions go through the
+ * table-driven static path, so connections never share mutable state. Requests can be pipelined : responses come
+ * back in request order and are only flushed once no further request is waiting, so a client sending many
+ * requests at once gets them back in a few writes.
+ * <p>
+ * {@link #getStats()} counts requests and dates and keeps the latency of each conversion, the {@code STATS}
+ * request returns the same line. A failed accept is counted there too, and the next one waits 10 ms, doubling up
+ * to 1 s while accepts keep failing.
+ */
+public final class LunarConversionServer implements Closeable {
+
+    /**
+     * 
+     */
+    public static final int DEFAULT_PORT = 7470;
+
+    /**
+     * Longest request line, enough for a full batch.
+     */
+    public static final int MAX_REQUEST_LENGTH = 1 << 20;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final long MIN_ACCEPT_BACKOFF_MILLIS = 10;
+    private static final long MAX_ACCEPT_BACKOFF_MILLIS = 1000;
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService executor;
+    private final boolean isVirtualThreads;
+    private final ConversionStats stats = new ConversionStats();
+    private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+    private final Thread acceptor;
+    private volatile boolean isClosed;
+
+    /**
+     * Listens on all addresses, with virtual threads if available.
+     * 
+     * @param port
+     *            0 for any free port
+     * @throws IOException
+     */
+    public LunarConversionServer(int port) throws IOException {
+        this(new InetSocketAddress(port), true);
+    }
+
+    /**
+     * 
+     * @param address
+     * @param useVirtualThreads
+     *            false to always use platform threads
+     * @throws IOException
+     */
+    public LunarConversionServer(InetSocketAddress address, boolean useVirtualThreads) throws IOException {
+        ExecutorService virtualThreadExecutor = useVirtualThreads ? newVirtualThreadExecutor() : null;
+        this.isVirtualThreads = virtualThreadExecutor != null;
+        this.executor = isVirtualThreads ? virtualThreadExecutor
+                : Executors.newCachedThreadPool(new NamedThreadFactory("lunar-connection-"));
+        this.serverSocket = new ServerSocket();
+        try {
+            serverSocket.bind(address);
+        } catch (IOException e) {
+            executor.shutdown();
+            serverSocket.close();
+            throw e;
+        }
+        this.acceptor = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                accept();
+            }
+        }, "lunar-acceptor");
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return null;
+        } catch (IllegalAccessException e) {
+            return null;
+        } catch (InvocationTargetException e) {
+            // preview feature not enabled
+            return null;
+        }
+    }
+
+    /**
+     * Starts accepting connections.
+     */
+    public void start() {
+        acceptor.start();
+    }
+
+    /**
+     * 
+     * @return the local port
+     */
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * 
+     * @return true if connections are served by virtual threads
+     */
+    public boolean isVirtualThreads() {
+        return isVirtualThreads;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public ConversionStats getStats() {
+        return stats;
+    }
+
+    /**
+     * Stops accepting connections and closes the open ones.
+     */
+    @Override
+    public void close() throws IOException {
+        isClosed = true;
+        // wakes the acceptor if it is backing off
+        acceptor.interrupt();
+        try {
+            serverSocket.close();
+        } finally {
+            for (Socket socket : connections) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // already closing
+                }
+            }
+            executor.shutdown();
+        }
+    }
+
+    private void accept() {
+        long backoffMillis = 0;
+        while (!isClosed) {
+            final Socket socket;
+            try {
+                socket = serverSocket.accept();
+                backoffMillis = 0;
+            } catch (IOException e) {
+                if (isClosed) {
+                    break;
+                }
+                // a persistent failure such as running out of file descriptors would spin the acceptor
+                stats.acceptFailed();
+                backoffMillis = Math.min(Math.max(backoffMillis * 2, MIN_ACCEPT_BACKOFF_MILLIS),
+                        MAX_ACCEPT_BACKOFF_MILLIS);
+                try {
+                    Thread.sleep(backoffMillis);
+                } catch (InterruptedException ie) {
+                    break;
+                }
+                continue;
+            }
+            connections.add(socket);
+            if (isClosed) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // closing anyway
+                }
+                break;
+            }
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    serve(socket);
+                }
+            });
+        }
+    }
+
+    private void serve(Socket socket) {
+        stats.connectionOpened();
+        try {
+            socket.setTcpNoDelay(true);
+            LineReader reader = new LineReader(socket.getInputStream(), MAX_REQUEST_LENGTH);
+            Writer writer = new OutputStreamWriter(new BufferedOutputStream(socket.getOutputStream(), BUFFER_SIZE),
+                    StandardCharsets.UTF_8);
+            StringBuilder response = new StringBuilder(256);
+            while (true) {
+                String request;
+                try {
+                    request = reader.readLine();
+                } catch (SocketException e) {
+                    break;
+                } catch (IOException e) {
+                    writer.write("ERROR " + e.getMessage() + "\n");
+                    writer.flush();
+                    break;
+                }
+                if (request == null) {
+                    break;
+                }
+
+                long start = System.nanoTime();
+                response.setLength(0);
+                int count = LunarConversionProtocol.handle(request, response, stats);
+                stats.record(System.nanoTime() - start, Math.max(count, 0), count < 0);
+                response.append('\n');
+                writer.append(response);
+                if (!reader.hasInput()) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            // the client went away
+        } finally {
+            stats.connectionClosed();
+            connections.remove(socket);
+            try {
+                socket.close();
+            } catch (IOException e) {
+                // already closed
+            }
+        }
+    }
+
+    private static final class NamedThreadFactory implements ThreadFactory {
+
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable r) {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+
+    /**
+     * Runs the server until the process is stopped, printing the stats every interval while requests come in.
+     * 
+     * @param args
+     *            {@code [port] [stats interval in seconds] [--platform-threads]}
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        int port = DEFAULT_PORT;
+        int interval = 10;
+        boolean useVirtualThreads = true;
+        int position = 0;
+        for (String arg : args) {
+            if (arg.equals("--platform-threads")) {
+                useVirtualThreads = false;
+            } else if (position++ == 0) {
+                port = Integer.parseInt(arg);
+            } else {
+                interval = Integer.parseInt(arg);
+            }
+        }
+
+        LunarConversionServer server = new LunarConversionServer(new InetSocketAddress(port), useVirtualThreads);
+        KoreanLunarCalendar.warmUp();
+        server.start();
+        System.out.println("Listening on " + server.getPort() + " with "
+                + (server.isVirtualThreads() ? "virtual" : "platform") + " threads");
+
+        long lastCount = 0;
+        while (true) {
+            Thread.sleep(interval * 1000L);
+            long count = server.getStats().getRequestCount();
+            if (count != lastCount) {
+                System.out.println(server.getStats());
+                lastCount = count;
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class LunarConversionServerTest {
+
+    @Test
+    public void testPipelinedRequests() throws IOException {
+        LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+        LunarConversionServer server = new LunarConversionServer(0);
+        server.start();
+        try {
+            Socket socket = new Socket("localhost", server.getPort());
+            try {
+                OutputStream out = socket.getOutputStream();
+                // every request in one write, the responses come back in order
+                out.write(("LUNAR 2017-06-24\n"
+                        + "LUNAR 20170724,1582-10-10,2017-13-01\r\n"
+                        + "SOLAR 2017-05-01 Intercalation,2017-05-01\n"
+                        + "GAPJA 2017-06-24\n"
+                        + "CHINESE_GAPJA 2017-06-24\n"
+                        + "TODAY\n"
+                        + "LUNAR\n"
+                        + "STATS\n").getBytes(StandardCharsets.UTF_8));
+                socket.shutdownOutput();
+
+                LineReader reader = new LineReader(socket.getInputStream(), 1024);
+                assertEquals(utf8(reader.readLine()), "OK 2017-05-01 Intercalation");
+                assertEquals(utf8(reader.readLine()), "OK 2017-06-02,,");
+                assertEquals(utf8(reader.readLine()), "OK 2017-06-24,2017-05-26");
+                assertEquals(utf8(reader.readLine()), "OK " + lunarDate.getGapjaString());
+                assertEquals(utf8(reader.readLine()), "OK " + lunarDate.getChineseGapJaString());
+                assertEquals(utf8(reader.readLine()), "ERROR unknown command");
+                assertEquals(utf8(reader.readLine()), "ERROR missing date");
+                assertTrue(reader.readLine().startsWith("OK requests=7 dates=8 errors=2 acceptErrors=0 connections=1 "));
+                assertNull(reader.readLine());
+            } finally {
+                socket.close();
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test
+    public void testLoadGenerator() throws Exception {
+        LunarConversionServer server = new LunarConversionServer(new InetSocketAddress("localhost", 0), false);
+        server.start();
+        try {
+            ConversionStats stats = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 2, 8, 3)
+                    .run(200);
+            assertTrue(stats.getRequestCount() > 0);
+            assertEquals(stats.getErrorCount(), 0L);
+            assertEquals(stats.getDateCount(), stats.getRequestCount() * 3);
+            assertTrue(stats.getLatencyPercentile(99) >= stats.getLatencyPercentile(50));
+            assertEquals(server.getStats().getRequestCount(), stats.getRequestCount());
+            assertEquals(server.getStats().getErrorCount(), 0L);
+        } finally {
+            server.close();
+        }
+    }
+
+    @Test(timeout = 30000)
+    public void testLoadGeneratorLargeBatches() throws Exception {
+        // 256 requests of 10000 dates fill both socket buffers before the first response is read
+        LunarConversionServer server = new LunarConversionServer(new InetSocketAddress("localhost", 0), false);
+        server.start();
+        try {
+            ConversionStats stats = new LoadGenerator(new InetSocketAddress("localhost", server.getPort()), 1, 256,
+                    LunarConversionProtocol.MAX_BATCH_SIZE).run(2500);
+            assertTrue(stats.getRequestCount() > 0);
+            assertEquals(stats.getErrorCount(), 0L);
+            assertEquals(server.getStats().getRequestCount(), stats.getRequestCount());
+        } finally {
+            server.close();
+        }
+    }
+
+    private static String utf8(String line) {
+        return new String(line.getBytes(StandardCharsets.ISO_8859_1), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,310 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, lock-free cache of conversion results and gapja strings for skewed traffic.
+ * <p>
+ * Each kind of result has a direct-mapped table keyed on the {@link PackedDate} value of the input: a lookup reads
+ * one slot, and a miss overwrites it (counted as an eviction when the slot held another date). Entries are
+ * immutable, so the cache can be shared by any number of threads without locking. Invalid inputs are never cached.
+ */
+public final class ConversionCache {
+
+    private static final int MAX_CAPACITY = 1 << 24;
+
+    private final int mask;
+    private final int shift;
+
+    private final AtomicReferenceArray<Entry> lunarDates;
+    private final AtomicReferenceArray<Entry> solarDates;
+    private final AtomicReferenceArray<Entry> gapjaStrings;
+    private final AtomicReferenceArray<Entry> chineseGapjaStrings;
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    private static final class Entry {
+        final int key;
+        final Object value;
+
+        Entry(int key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * 
+     * @param capacity
+     *            slots per result kind, rounded up to a power of two
+     */
+    public ConversionCache(int capacity) {
+        if (capacity < 1 || capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("capacity(" + capacity + ") must be between 1 and " + MAX_CAPACITY);
+        }
+        int bits = 32 - Integer.numberOfLeadingZeros(capacity - 1);
+        this.mask = (1 << bits) - 1;
+        this.shift = 32 - bits;
+        this.lunarDates = new AtomicReferenceArray<Entry>(mask + 1);
+        this.solarDates = new AtomicReferenceArray<Entry>(mask + 1);
+        this.gapjaStrings = new AtomicReferenceArray<Entry>(mask + 1);
+        this.chineseGapjaStrings = new AtomicReferenceArray<Entry>(mask + 1);
+    }
+
+    /**
+     * 
+     * @return slots per result kind
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Cached {@link KoreanLunarCalendar#toLunarDate(int, int, int)}.
+     * 
+     * @param solarYear
+     * @param solarMonth
+     * @param solarDay
+     * @return the lunar date, or null if the solar date is not valid
+     */
+    public LunarDate toLunarDate(int solarYear, int solarMonth, int solarDay) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        if (!KoreanLunarCalendar.checkValidDate(false, false, solarYear, solarMonth, solarDay)) {
+            if (ConversionMetrics.ENABLED) {
+                ConversionMetrics.record(ConversionMetrics.Operation.SOLAR_TO_LUNAR, ConversionMetrics.Outcome.INVALID, start);
+            }
+            return null;
+        }
+        int key = PackedDate.encodeSolar(solarYear, solarMonth, solarDay);
+        Object value = get(lunarDates, key);
+        boolean isHit = value != null;
+        if (!isHit) {
+            value = KoreanLunarCalendar.getLunarDateBySolarDate(solarYear, solarMonth, solarDay);
+            put(lunarDates, key, value);
+        }
+        if (ConversionMetrics.ENABLED) {
+            record(ConversionMetrics.Operation.SOLAR_TO_LUNAR, isHit, start);
+        }
+        return (LunarDate) value;
+    }
+
+    /**
+     * Cached {@link KoreanLunarCalendar#toSolarDate(int, int, int, boolean)}.
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return the solar date, or null if the lunar date is not valid
+     */
+    public SolarDate toSolarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
+            if (ConversionMetrics.ENABLED) {
+                ConversionMetrics.record(ConversionMetrics.Operation.LUNAR_TO_SOLAR, ConversionMetrics.Outcome.INVALID, start);
+            }
+            return null;
+        }
+        int key = PackedDate.encodeLunar(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        Object value = get(solarDates, key);
+        boolean isHit = value != null;
+        if (!isHit) {
+            value = KoreanLunarCalendar.getSolarDateByLunarDate(lunarYear, lunarMonth, lunarDay, isIntercalation);
+            put(solarDates, key, value);
+        }
+        if (ConversionMetrics.ENABLED) {
+            record(ConversionMetrics.Operation.LUNAR_TO_SOLAR, isHit, start);
+        }
+        return (SolarDate) value;
+    }
+
+    /**
+     * Cached {@link PackedDate#toLunar(int)}.
+     * 
+     * @param packedSolar
+     * @return the packed lunar date, or {@link PackedDate#INVALID} if the solar date is not valid
+     */
+    public int toLunar(int packedSolar) {
+        LunarDate lunarDate = toLunarDate(PackedDate.getSolarYear(packedSolar), PackedDate.getSolarMonth(packedSolar),
+                PackedDate.getSolarDay(packedSolar));
+        return lunarDate == null ? PackedDate.INVALID : PackedDate.encodeLunar(lunarDate.getYear(),
+                lunarDate.getMonth(), lunarDate.getDay(), lunarDate.isIntercalation());
+    }
+
+    /**
+     * Cached {@link PackedDate#toSolar(int)}.
+     * 
+     * @param packedLunar
+     * @return the packed solar date, or {@link PackedDate#INVALID} if the lunar date is not valid
+     */
+    public int toSolar(int packedLunar) {
+        SolarDate solarDate = toSolarDate(PackedDate.getLunarYear(packedLunar), PackedDate.getLunarMonth(packedLunar),
+                PackedDate.getLunarDay(packedLunar), PackedDate.isIntercalation(packedLunar));
+        return solarDate == null ? PackedDate.INVALID
+                : PackedDate.encodeSolar(solarDate.getYear(), solarDate.getMonth(), solarDate.getDay());
+    }
+
+    /**
+     * Cached {@link LunarDate#getGapjaString()}.
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return
+     */
+    public String getGapjaString(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        return getGapjaString(gapjaStrings, false, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    /**
+     * Cached {@link LunarDate#getChineseGapJaString()}.
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return
+     */
+    public String getChineseGapJaString(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        return getGapjaString(chineseGapjaStrings, true, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    private String getGapjaString(AtomicReferenceArray<Entry> table, boolean isChinese, int lunarYear, int lunarMonth,
+            int lunarDay, boolean isIntercalation) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
+            String gapja = isChinese
+                    ? KoreanLunarFormatter.getChineseGapJaString(lunarYear, lunarMonth, lunarDay, isIntercalation)
+                    : KoreanLunarFormatter.getGapjaString(lunarYear, lunarMonth, lunarDay, isIntercalation);
+            if (ConversionMetrics.ENABLED) {
+                ConversionMetrics.record(ConversionMetrics.Operation.GAPJA, ConversionMetrics.Outcome.INVALID, start);
+            }
+            return gapja;
+        }
+        int key = PackedDate.encodeLunar(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        Object value = get(table, key);
+        boolean isHit = value != null;
+        if (!isHit) {
+            value = isChinese
+                    ? KoreanLunarFormatter.getChineseGapJaString(lunarYear, lunarMonth, lunarDay, isIntercalation)
+                    : KoreanLunarFormatter.getGapjaString(lunarYear, lunarMonth, lunarDay, isIntercalation);
+            put(table, key, value);
+        }
+        if (ConversionMetrics.ENABLED) {
+            record(ConversionMetrics.Operation.GAPJA, isHit, start);
+        }
+        return (String) value;
+    }
+
+    private static void record(ConversionMetrics.Operation operation, boolean isHit, long start) {
+        ConversionMetrics.record(operation, isHit ? ConversionMetrics.Outcome.CACHE_HIT
+                : ConversionMetrics.Outcome.CACHE_MISS, start);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * Number of misses that replaced the entry of another date.
+     * 
+     * @return
+     */
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * 
+     * @return hits / (hits + misses), or 0 before the first lookup
+     */
+    public double getHitRate() {
+        long hits = hitCount.sum();
+        long lookups = hits + missCount.sum();
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * Resets the hit, miss and eviction counters.
+     */
+    public void resetStatistics() {
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    /**
+     * Removes every entry, the counters are kept.
+     */
+    public void clear() {
+        for (int i = 0; i <= mask; i++) {
+            lunarDates.set(i, null);
+            solarDates.set(i, null);
+            gapjaStrings.set(i, null);
+            chineseGapjaStrings.set(i, null);
+        }
+    }
+
+    private int indexOf(int key) {
+        // fibonacci hashing spreads neighbouring dates over the table
+        return shift == 32 ? 0 : (key * 0x9E3779B9) >>> shift;
+    }
+
+    private Object get(AtomicReferenceArray<Entry> table, int key) {
+        Entry entry = table.get(indexOf(key));
+        if (entry != null && entry.key == key) {
+            hitCount.increment();
+            return entry.value;
+        }
+        missCount.increment();
+        return null;
+    }
+
+    private void put(AtomicReferenceArray<Entry> table, int key, Object value) {
+        int index = indexOf(key);
+        Entry previous = table.getAndSet(index, new Entry(key, value));
+        if (previous != null && previous.key != key) {
+            evictionCount.increment();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Receives every instrumented call while {@link ConversionMetrics} is enabled. Implementations are registered with
+ * {@link ConversionMetrics#addListener(ConversionListener)}, or found through {@link java.util.ServiceLoader} from a
+ * {@code META-INF/services/com.github.usingsky.calendar.ConversionListener} file.
+ * <p>
+ * Listeners run on the converting thread, so they should only hand the values over (counters, a queue). An
+ * exception thrown by a listener is counted and otherwise ignored.
+ */
+public interface ConversionListener {
+
+    /**
+     * 
+     * @param operation
+     * @param outcome
+     * @param nanos
+     *            elapsed time of the call
+     */
+    void onConversion(ConversionMetrics.Operation operation, ConversionMetrics.Outcome outcome, long nanos);
+}
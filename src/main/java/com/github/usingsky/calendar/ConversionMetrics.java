@@ -0,0 +1,403 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Opt-in instrumentation of the conversion entry points : {@code setSolarDate}, {@code setLunarDate},
+ * {@code toLunarDate}, {@code toSolarDate} and the {@link ConversionCache} lookups, the gapja strings and the ISO
+ * format of {@link KoreanLunarCalendar}.
+ * <p>
+ * Enabled with the {@code com.github.usingsky.calendar.metrics} system property at startup. The flag is a
+ * {@code static final} field, so when it is off the JIT removes the instrumentation entirely. When it is on, every
+ * call is timed and counted per operation and outcome with {@link LongAdder} counters and a log-linear histogram
+ * of {@link LongAdder} buckets (4 buckets per power of two, so percentiles are within 25%), then passed to the
+ * {@link ConversionListener}s.
+ */
+public final class ConversionMetrics {
+
+    /**
+     * System property enabling the instrumentation.
+     */
+    public static final String ENABLED_PROPERTY = "com.github.usingsky.calendar.metrics";
+
+    /**
+     * Name under which {@link #registerMBean()} registers the {@link ConversionMetricsMXBean}.
+     */
+    public static final String OBJECT_NAME = "com.github.usingsky.calendar:type=ConversionMetrics";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * 
+     */
+    public enum Operation {
+        SOLAR_TO_LUNAR, LUNAR_TO_SOLAR, GAPJA, FORMAT
+    }
+
+    /**
+     * Calls without a cache are {@link #VALID} or {@link #INVALID}, valid calls through a {@link ConversionCache}
+     * are {@link #CACHE_HIT} or {@link #CACHE_MISS}.
+     */
+    public enum Outcome {
+        VALID, INVALID, CACHE_HIT, CACHE_MISS
+    }
+
+    private static final Operation[] OPERATIONS = Operation.values();
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    // log-linear buckets : values below 4 have their own bucket, then 4 buckets per power of two
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    // index : operation * outcomes + outcome, allocated only when enabled
+    private static final LongAdder[] COUNTS;
+    private static final LongAdder[] TOTAL_NANOS;
+    // one adder per bucket, so threads timing calls of the same duration do not contend on one cache line
+    private static final LongAdder[] HISTOGRAMS;
+
+    private static final LongAdder LISTENER_ERRORS = new LongAdder();
+    private static final Object LISTENER_LOCK = new Object();
+    private static volatile ConversionListener[] listeners = new ConversionListener[0];
+
+    static {
+        int size = OPERATIONS.length * OUTCOMES.length;
+        if (ENABLED) {
+            COUNTS = new LongAdder[size];
+            TOTAL_NANOS = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                COUNTS[i] = new LongAdder();
+                TOTAL_NANOS[i] = new LongAdder();
+            }
+            HISTOGRAMS = new LongAdder[size * BUCKETS];
+            for (int i = 0; i < HISTOGRAMS.length; i++) {
+                HISTOGRAMS[i] = new LongAdder();
+            }
+            for (ConversionListener listener : ServiceLoader.load(ConversionListener.class)) {
+                addListener(listener);
+            }
+        } else {
+            COUNTS = null;
+            TOTAL_NANOS = null;
+            HISTOGRAMS = null;
+        }
+    }
+
+    private ConversionMetrics() {
+    }
+
+    /**
+     * 
+     * @return whether the instrumentation was enabled at startup
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Records a call that started at {@code startNanos}. Callers check {@link #ENABLED} first.
+     */
+    static void record(Operation operation, Outcome outcome, long startNanos) {
+        long nanos = System.nanoTime() - startNanos;
+        int index = operation.ordinal() * OUTCOMES.length + outcome.ordinal();
+        COUNTS[index].increment();
+        TOTAL_NANOS[index].add(nanos);
+        HISTOGRAMS[index * BUCKETS + getBucket(nanos)].increment();
+
+        ConversionListener[] current = listeners;
+        for (int i = 0; i < current.length; i++) {
+            try {
+                current[i].onConversion(operation, outcome, nanos);
+            } catch (RuntimeException e) {
+                LISTENER_ERRORS.increment();
+            }
+        }
+    }
+
+    static int getBucket(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return nanos < 0 ? 0 : (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long getBucketUpperBound(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        long lowerBound = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << (exponent - SUB_BUCKET_BITS);
+        return lowerBound + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    /**
+     * 
+     * @param listener
+     */
+    public static void addListener(ConversionListener listener) {
+        if (listener == null) {
+            throw new NullPointerException("listener");
+        }
+        synchronized (LISTENER_LOCK) {
+            ConversionListener[] current = listeners;
+            ConversionListener[] updated = Arrays.copyOf(current, current.length + 1);
+            updated[current.length] = listener;
+            listeners = updated;
+        }
+    }
+
+    /**
+     * 
+     * @param listener
+     * @return whether the listener was registered
+     */
+    public static boolean removeListener(ConversionListener listener) {
+        synchronized (LISTENER_LOCK) {
+            ConversionListener[] current = listeners;
+            for (int i = 0; i < current.length; i++) {
+                if (current[i] == listener) {
+                    ConversionListener[] updated = new ConversionListener[current.length - 1];
+                    System.arraycopy(current, 0, updated, 0, i);
+                    System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                    listeners = updated;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 
+     * @param operation
+     * @param outcome
+     * @return number of calls, 0 when disabled
+     */
+    public static long getCount(Operation operation, Outcome outcome) {
+        return ENABLED ? COUNTS[operation.ordinal() * OUTCOMES.length + outcome.ordinal()].sum() : 0;
+    }
+
+    /**
+     * 
+     * @param operation
+     * @param outcome
+     * @return total time of the calls in nanoseconds, 0 when disabled
+     */
+    public static long getTotalNanos(Operation operation, Outcome outcome) {
+        return ENABLED ? TOTAL_NANOS[operation.ordinal() * OUTCOMES.length + outcome.ordinal()].sum() : 0;
+    }
+
+    /**
+     * 
+     * @param operation
+     * @param outcome
+     * @param percentile
+     *            0 ~ 100
+     * @return latency in nanoseconds below which the given percentage of calls fall, rounded up to the end of its
+     *         histogram bucket, or 0 without any call
+     */
+    public static long getLatencyPercentile(Operation operation, Outcome outcome, double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile(" + percentile + ") is outside 0 ~ 100");
+        }
+        if (!ENABLED) {
+            return 0;
+        }
+        int offset = (operation.ordinal() * OUTCOMES.length + outcome.ordinal()) * BUCKETS;
+        long[] histogram = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            histogram[i] = HISTOGRAMS[offset + i].sum();
+            total += histogram[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(total * percentile / 100));
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += histogram[i];
+            if (count >= rank) {
+                return getBucketUpperBound(i);
+            }
+        }
+        return getBucketUpperBound(BUCKETS - 1);
+    }
+
+    /**
+     * 
+     * @return number of exceptions thrown by listeners
+     */
+    public static long getListenerErrorCount() {
+        return LISTENER_ERRORS.sum();
+    }
+
+    /**
+     * Clears counters and histograms. Calls recorded at the same time may be partly kept.
+     */
+    public static void reset() {
+        LISTENER_ERRORS.reset();
+        if (!ENABLED) {
+            return;
+        }
+        for (int i = 0; i < COUNTS.length; i++) {
+            COUNTS[i].reset();
+            TOTAL_NANOS[i].reset();
+        }
+        for (int i = 0; i < HISTOGRAMS.length; i++) {
+            HISTOGRAMS[i].reset();
+        }
+    }
+
+    /**
+     * Registers the {@link ConversionMetricsMXBean} with the platform MBean server under {@link #OBJECT_NAME}.
+     * 
+     * @return false if it was already registered
+     * @throws JMException
+     */
+    public static boolean registerMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        synchronized (LISTENER_LOCK) {
+            if (server.isRegistered(name)) {
+                return false;
+            }
+            server.registerMBean(new MXBean(), name);
+            return true;
+        }
+    }
+
+    /**
+     * 
+     * @return false if it was not registered
+     * @throws JMException
+     */
+    public static boolean unregisterMBean() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        synchronized (LISTENER_LOCK) {
+            if (!server.isRegistered(name)) {
+                return false;
+            }
+            server.unregisterMBean(name);
+            return true;
+        }
+    }
+
+    private static final class MXBean implements ConversionMetricsMXBean {
+
+        private interface Statistic {
+            long get(Operation operation, Outcome outcome);
+        }
+
+        private Map<String, Long> collect(Statistic statistic) {
+            Map<String, Long> values = new LinkedHashMap<String, Long>();
+            for (Operation operation : OPERATIONS) {
+                for (Outcome outcome : OUTCOMES) {
+                    if (getCount(operation, outcome) > 0) {
+                        values.put(operation + "/" + outcome, statistic.get(operation, outcome));
+                    }
+                }
+            }
+            return values;
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public Map<String, Long> getCounts() {
+            return collect(new Statistic() {
+                @Override
+                public long get(Operation operation, Outcome outcome) {
+                    return getCount(operation, outcome);
+                }
+            });
+        }
+
+        @Override
+        public Map<String, Long> getMeanNanos() {
+            return collect(new Statistic() {
+                @Override
+                public long get(Operation operation, Outcome outcome) {
+                    long count = getCount(operation, outcome);
+                    return count == 0 ? 0 : getTotalNanos(operation, outcome) / count;
+                }
+            });
+        }
+
+        @Override
+        public Map<String, Long> getMedianNanos() {
+            return collect(new Statistic() {
+                @Override
+                public long get(Operation operation, Outcome outcome) {
+                    return ConversionMetrics.getLatencyPercentile(operation, outcome, 50);
+                }
+            });
+        }
+
+        @Override
+        public Map<String, Long> getP99Nanos() {
+            return collect(new Statistic() {
+                @Override
+                public long get(Operation operation, Outcome outcome) {
+                    return ConversionMetrics.getLatencyPercentile(operation, outcome, 99);
+                }
+            });
+        }
+
+        @Override
+        public long getListenerErrorCount() {
+            return ConversionMetrics.getListenerErrorCount();
+        }
+
+        @Override
+        public long getLatencyPercentile(String operation, String outcome, double percentile) {
+            return ConversionMetrics.getLatencyPercentile(Operation.valueOf(operation), Outcome.valueOf(outcome),
+                    percentile);
+        }
+
+        @Override
+        public void reset() {
+            ConversionMetrics.reset();
+        }
+    }
+}
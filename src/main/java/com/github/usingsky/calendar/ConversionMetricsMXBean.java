@@ -0,0 +1,87 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.util.Map;
+
+/**
+ * JMX view of {@link ConversionMetrics}, registered by {@link ConversionMetrics#registerMBean()}. Map keys are
+ * {@code OPERATION/OUTCOME}, for example {@code SOLAR_TO_LUNAR/CACHE_HIT}, and only list combinations seen so far.
+ */
+public interface ConversionMetricsMXBean {
+
+    /**
+     * 
+     * @return
+     */
+    boolean isEnabled();
+
+    /**
+     * 
+     * @return number of calls
+     */
+    Map<String, Long> getCounts();
+
+    /**
+     * 
+     * @return mean latency in nanoseconds
+     */
+    Map<String, Long> getMeanNanos();
+
+    /**
+     * 
+     * @return median latency in nanoseconds, as the upper bound of its histogram bucket
+     */
+    Map<String, Long> getMedianNanos();
+
+    /**
+     * 
+     * @return 99th percentile latency in nanoseconds, as the upper bound of its histogram bucket
+     */
+    Map<String, Long> getP99Nanos();
+
+    /**
+     * 
+     * @return
+     */
+    long getListenerErrorCount();
+
+    /**
+     * 
+     * @param operation
+     *            name of a {@link ConversionMetrics.Operation}
+     * @param outcome
+     *            name of a {@link ConversionMetrics.Outcome}
+     * @param percentile
+     *            0 ~ 100
+     * @return
+     */
+    long getLatencyPercentile(String operation, String outcome, double percentile);
+
+    /**
+     * Clears counters and histograms.
+     */
+    void reset();
+}
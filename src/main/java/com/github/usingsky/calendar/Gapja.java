@@ -0,0 +1,270 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Sexagenary (gapja) cycle indexes of the year, month and day pillars as primitives.
+ * <p>
+ * A cycle index is between 0 (gapja) and 59, its cheongan (heavenly stem) is {@code cycle % 10} and its ganji
+ * (earthly branch) is {@code cycle % 12}. The three pillars of a date can be packed into one int:
+ * 
+ * <pre>
+ * bits 12-17 : year cycle
+ * bits  6-11 : month cycle
+ * bits  0- 5 : day cycle
+ * </pre>
+ * 
+ * The day pillar only depends on the day itself and is available for any epoch day. The year and month pillars
+ * follow the lunar calendar and are only available inside the supported range.
+ * {@link KoreanLunarFormatter#getGapja(int)} returns the name of a cycle index.
+ */
+public final class Gapja {
+
+    /**
+     * Value returned for dates that are not valid or outside the supported range.
+     */
+    public static final int INVALID = -1;
+
+    private static final int CYCLE = 60;
+    private static final int YEAR_SHIFT = 12;
+    private static final int MONTH_SHIFT = 6;
+    private static final int CYCLE_MASK = 0x3F;
+
+    private Gapja() {
+    }
+
+    /**
+     * 
+     * @param cycle
+     * @return cheongan index (0 ~ 9)
+     */
+    public static int getCheongan(int cycle) {
+        return cycle % 10;
+    }
+
+    /**
+     * 
+     * @param cycle
+     * @return ganji index (0 ~ 11)
+     */
+    public static int getGanji(int cycle) {
+        return cycle % 12;
+    }
+
+    /**
+     * 
+     * @param cheongan
+     * @param ganji
+     * @return the cycle index, or {@link #INVALID} if the pair does not exist (stem and branch parity differs)
+     */
+    public static int getCycle(int cheongan, int ganji) {
+        if (cheongan < 0 || cheongan > 9 || ganji < 0 || ganji > 11 || (cheongan & 1) != (ganji & 1)) {
+            return INVALID;
+        }
+        // cycle = cheongan (mod 10) and cycle = ganji (mod 12)
+        return (6 * cheongan - 5 * ganji + CYCLE * 5) % CYCLE;
+    }
+
+    /**
+     * 
+     * @param yearCycle
+     * @param monthCycle
+     * @param dayCycle
+     * @return
+     */
+    public static int pack(int yearCycle, int monthCycle, int dayCycle) {
+        return (yearCycle << YEAR_SHIFT) | (monthCycle << MONTH_SHIFT) | dayCycle;
+    }
+
+    /**
+     * 
+     * @param packed
+     * @return
+     */
+    public static int getYearCycle(int packed) {
+        return (packed >> YEAR_SHIFT) & CYCLE_MASK;
+    }
+
+    /**
+     * 
+     * @param packed
+     * @return
+     */
+    public static int getMonthCycle(int packed) {
+        return (packed >> MONTH_SHIFT) & CYCLE_MASK;
+    }
+
+    /**
+     * 
+     * @param packed
+     * @return
+     */
+    public static int getDayCycle(int packed) {
+        return packed & CYCLE_MASK;
+    }
+
+    /**
+     * Day pillar of any day, counted in days from 1970-01-01 like {@link java.time.LocalDate#toEpochDay()}.
+     * 
+     * @param epochDay
+     * @return
+     */
+    public static int getDayCycleOfEpochDay(long epochDay) {
+        return KoreanLunarCalendar.getGapjaDayCycleByEpochDay(epochDay);
+    }
+
+    /**
+     * Day pillar of a solar date without converting it to a lunar date.
+     * 
+     * @param solarYear
+     * @param solarMonth
+     * @param solarDay
+     * @return the day cycle, or {@link #INVALID} if the solar date is not valid
+     */
+    public static int getDayCycle(int solarYear, int solarMonth, int solarDay) {
+        if (!KoreanLunarCalendar.checkValidDate(false, false, solarYear, solarMonth, solarDay)) {
+            return INVALID;
+        }
+        return KoreanLunarCalendar.getGapjaDayCycle(KoreanLunarCalendar.getSolarAbsDays(solarYear, solarMonth, solarDay));
+    }
+
+    /**
+     * Packed year, month and day pillars of a day counted from 1970-01-01.
+     * 
+     * @param epochDay
+     * @return the packed cycles, or {@link #INVALID} if the day is outside the supported range
+     */
+    public static int ofEpochDay(long epochDay) {
+        int absDays = KoreanLunarCalendar.getAbsDaysByEpochDay(epochDay);
+        return absDays == 0 ? INVALID : ofAbsDays(absDays);
+    }
+
+    /**
+     * Packed year, month and day pillars of a solar date.
+     * 
+     * @param solarYear
+     * @param solarMonth
+     * @param solarDay
+     * @return the packed cycles, or {@link #INVALID} if the solar date is not valid
+     */
+    public static int ofSolarDate(int solarYear, int solarMonth, int solarDay) {
+        if (!KoreanLunarCalendar.checkValidDate(false, false, solarYear, solarMonth, solarDay)) {
+            return INVALID;
+        }
+        return ofAbsDays(KoreanLunarCalendar.getSolarAbsDays(solarYear, solarMonth, solarDay));
+    }
+
+    /**
+     * Packed year, month and day pillars of a lunar date, an intercalation month shares the month pillar of the
+     * month it follows.
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return the packed cycles, or {@link #INVALID} if the lunar date is not valid
+     */
+    public static int ofLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
+            return INVALID;
+        }
+        int absDays = KoreanLunarCalendar.getLunarAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        return pack(KoreanLunarCalendar.getGapjaYearCycle(lunarYear),
+                KoreanLunarCalendar.getGapjaMonthCycle(lunarYear, lunarMonth), KoreanLunarCalendar.getGapjaDayCycle(absDays));
+    }
+
+    private static int ofAbsDays(int absDays) {
+        int packedLunar = KoreanLunarCalendar.getPackedLunarDateByAbsDays(absDays);
+        int lunarYear = PackedDate.getLunarYear(packedLunar);
+        return pack(KoreanLunarCalendar.getGapjaYearCycle(lunarYear),
+                KoreanLunarCalendar.getGapjaMonthCycle(lunarYear, PackedDate.getLunarMonth(packedLunar)),
+                KoreanLunarCalendar.getGapjaDayCycle(absDays));
+    }
+
+    /**
+     * Packed pillars of solar dates given as yyyyMMdd, invalid dates produce {@link #INVALID}.
+     * 
+     * @param solarDates
+     * @param gapjas
+     */
+    public static void ofSolarDates(int[] solarDates, int[] gapjas) {
+        ofSolarDates(solarDates, gapjas, 0, solarDates.length);
+    }
+
+    /**
+     * 
+     * @param solarDates
+     * @param gapjas
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void ofSolarDates(int[] solarDates, int[] gapjas, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(solarDates.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(gapjas.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = solarDates[i];
+            gapjas[i] = ofSolarDate(dateValue / 10000, dateValue / 100 % 100, dateValue % 100);
+        }
+    }
+
+    /**
+     * Day pillars of solar dates given as yyyyMMdd, invalid dates produce {@link #INVALID}.
+     * 
+     * @param solarDates
+     * @param dayCycles
+     */
+    public static void getDayCycles(int[] solarDates, int[] dayCycles) {
+        getDayCycles(solarDates, dayCycles, 0, solarDates.length);
+    }
+
+    /**
+     * 
+     * @param solarDates
+     * @param dayCycles
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void getDayCycles(int[] solarDates, int[] dayCycles, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(solarDates.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(dayCycles.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = solarDates[i];
+            dayCycles[i] = getDayCycle(dateValue / 10000, dateValue / 100 % 100, dateValue % 100);
+        }
+    }
+
+    /**
+     * Day pillars of days counted from 1970-01-01, valid for any day.
+     * 
+     * @param epochDays
+     * @param dayCycles
+     */
+    public static void getDayCyclesOfEpochDays(long[] epochDays, int[] dayCycles) {
+        KoreanLunarCalendar.checkBulkRange(dayCycles.length, 0, epochDays.length);
+        for (int i = 0; i < epochDays.length; i++) {
+            dayCycles[i] = getDayCycleOfEpochDay(epochDays[i]);
+        }
+    }
+}
@@ -24,6 +24,17 @@
 
 package com.github.usingsky.calendar;
 
+import java.nio.IntBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public class KoreanLunarCalendar {
 
     private int lunarYear = 0;
@@ -35,14 +46,18 @@ public class KoreanLunarCalendar {
     private int solarMonth = 0;
     private int solarDay = 0;
 
-    private int[] gapjaYearInx = { 0, 0, 0 };
-    private int[] gapjaMonthInx = { 0, 0, 1 };
-    private int[] gapjaDayInx = { 0, 0, 2 };
+    private volatile ConversionCache conversionCache;
 
-    private static int KOREAN_LUNAR_MIN_VALUE = 10000101;
-    private static int KOREAN_LUNAR_MAX_VALUE = 20501118;
-    private static int KOREAN_SOLAR_MIN_VALUE = 10000213;
-    private static int KOREAN_SOLAR_MAX_VALUE = 20501231;
+    /**
+     * Value written by the bulk conversions for inputs that are not valid dates.
+     */
+    public static final int INVALID_DATE = 0;
+
+    // derived from the data table in use
+    private static int KOREAN_LUNAR_MIN_VALUE;
+    private static int KOREAN_LUNAR_MAX_VALUE;
+    private static int KOREAN_SOLAR_MIN_VALUE;
+    private static int KOREAN_SOLAR_MAX_VALUE;
 
     private static int KOREAN_LUNAR_BASE_YEAR = 1000;
     private static int SOLAR_LUNAR_DAY_DIFF = 43;
@@ -53,17 +68,8 @@ public class KoreanLunarCalendar {
     private static int SOLAR_BIG_YEAR_DAY = 366;
 
     private static int[] SOLAR_DAYS = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31, 29 };
-    private static char[] KOREAN_CHEONGAN = { 0xac11, 0xc744, 0xbcd1, 0xc815, 0xbb34, 0xae30, 0xacbd, 0xc2e0, 0xc784, 0xacc4 };
-    private static char[] KOREAN_GANJI = { 0xc790, 0xcd95, 0xc778, 0xbb18, 0xc9c4, 0xc0ac, 0xc624, 0xbbf8, 0xc2e0, 0xc720, 0xc220, 0xd574 };
-    private static char[] KOREAN_GAPJA_UNIT = { 0xb144, 0xc6d4, 0xc77c };
-
-    private static char[] CHINESE_CHEONGAN = { 0x7532, 0x4e59, 0x4e19, 0x4e01, 0x620a, 0x5df1, 0x5e9a, 0x8f9b, 0x58ec, 0x7678 };
-    private static char[] CHINESE_GANJI = { 0x5b50, 0x4e11, 0x5bc5, 0x536f, 0x8fb0, 0x5df3, 0x5348, 0x672a, 0x7533, 0x9149, 0x620c, 0x4ea5 };
-    private static char[] CHINESE_GAPJA_UNIT = { 0x5e74, 0x6708, 0x65e5 };
 
-    private static char[] INTERCALATION_STR = { 0xc724, 0x958f };
-
-    // 1000 ~ 2050
+    // 1000 ~ 2050, replaced by the table named by KoreanLunarDataTable.FILE_PROPERTY or RESOURCE_PROPERTY
     private static int[] KOREAN_LUNAR_DATA = {
             0x82c60a57, 0x82fec52b, 0x82c40d2a, 0x82c60d55, 0xc30095ad, 0x82c4056a, 0x82c6096d, 0x830054dd, 0xc2c404ad, 0x82c40a4d,
             0x83002e4d, 0x82c40b26, 0xc300ab56, 0x82c60ad5, 0x82c4035a, 0x8300697a, 0xc2c6095b, 0x82c4049b, 0x83004a9b, 0x82c40a4b,
@@ -172,6 +178,82 @@ public class KoreanLunarCalendar {
             0xc2c60b6a, 0x82c6096d, 0x8300255b, 0x82c4049b, 0xc3007a57, 0x82c40a4b, 0x82c40b25, 0x83015b25, 0xc2c406d4, 0x82c60ada,
             0x830138b6,};
 
+    private static final KoreanLunarDataTable DATA_TABLE;
+
+    static {
+        KoreanLunarDataTable table = KoreanLunarDataTable.loadConfigured();
+        if (table == null) {
+            table = new KoreanLunarDataTable(KOREAN_LUNAR_BASE_YEAR, SOLAR_LUNAR_DAY_DIFF, KOREAN_LUNAR_DATA);
+        }
+        DATA_TABLE = table;
+        KOREAN_LUNAR_DATA = table.getYearData();
+        KOREAN_LUNAR_BASE_YEAR = table.getBaseYear();
+        SOLAR_LUNAR_DAY_DIFF = table.getSolarLunarDayDiff();
+
+        KOREAN_LUNAR_MIN_VALUE = table.getLunarMinDate();
+        KOREAN_LUNAR_MAX_VALUE = table.getLunarMaxDate();
+        KOREAN_SOLAR_MIN_VALUE = table.getSolarMinDate();
+        KOREAN_SOLAR_MAX_VALUE = table.getSolarMaxDate();
+    }
+
+    // cumulative days from the base year, index : year - KOREAN_LUNAR_BASE_YEAR
+    private static final int[] LUNAR_DAYS_BEFORE_YEAR;
+    private static final int[] SOLAR_DAYS_BEFORE_YEAR;
+
+    // month slots per lunar year in MonthTableHolder (month 1 ~ 12, intercalation month)
+    private static final int LUNAR_MONTH_SLOTS = 13;
+    private static final int LUNAR_INTERCALATION_SLOT = 12;
+
+    // start offset of each month within its solar year, common year (0 ~ 12) and leap year (13 ~ 25)
+    private static final int[] SOLAR_DAYS_BEFORE_MONTH;
+
+    // solar month of each day of the year, common year (0 ~ 365) and leap year (366 ~ 731)
+    private static final byte[] SOLAR_MONTH_BY_DAY_OF_YEAR;
+
+    // last supported absolute day, and the java.time epoch day of absolute day 0
+    private static final int MAX_ABS_DAYS;
+    private static final long EPOCH_DAY_OF_ABS_DAYS_ZERO;
+
+    // contiguous elements per parallel task, large enough for sorted input to stay in the same months
+    private static final int PARALLEL_MIN_CHUNK = 8192;
+
+    private static final String DENSE_TABLE_PROPERTY = "com.github.usingsky.calendar.denseTable";
+    private static volatile boolean denseTableEnabled = Boolean.getBoolean(DENSE_TABLE_PROPERTY);
+
+    /*
+     * Tables are built in three tiers to keep class initialization short : the per-year offsets below, the
+     * per-month tables of MonthTableHolder on the first conversion, and the dense tables of DenseTableHolder on
+     * first use in dense mode. warmUp() builds them ahead of time.
+     *
+     * Static fields and methods of a class are resolved again on every access until its initialization completes,
+     * so the builders work on local arrays, or in KoreanLunarDataTable, and assign the fields once.
+     */
+    static {
+        LUNAR_DAYS_BEFORE_YEAR = DATA_TABLE.buildLunarDaysBeforeYear();
+        SOLAR_DAYS_BEFORE_YEAR = DATA_TABLE.buildSolarDaysBeforeYear();
+
+        int[] solarDays = SOLAR_DAYS;
+        int[] solarDaysBeforeMonth = new int[26];
+        byte[] solarMonthByDayOfYear = new byte[366 * 2];
+        for (int month = 1; month < 13; month++) {
+            solarDaysBeforeMonth[month] = solarDaysBeforeMonth[month - 1] + solarDays[month - 1];
+            solarDaysBeforeMonth[13 + month] = solarDaysBeforeMonth[13 + month - 1]
+                    + (month == 2 ? solarDays[12] : solarDays[month - 1]);
+
+            for (int dayOfYear = solarDaysBeforeMonth[month - 1]; dayOfYear < solarDaysBeforeMonth[month]; dayOfYear++) {
+                solarMonthByDayOfYear[dayOfYear] = (byte) month;
+            }
+            for (int dayOfYear = solarDaysBeforeMonth[13 + month - 1]; dayOfYear < solarDaysBeforeMonth[13 + month]; dayOfYear++) {
+                solarMonthByDayOfYear[366 + dayOfYear] = (byte) month;
+            }
+        }
+        SOLAR_DAYS_BEFORE_MONTH = solarDaysBeforeMonth;
+        SOLAR_MONTH_BY_DAY_OF_YEAR = solarMonthByDayOfYear;
+
+        MAX_ABS_DAYS = DATA_TABLE.getDayCount();
+        EPOCH_DAY_OF_ABS_DAYS_ZERO = LocalDate.of(KOREAN_LUNAR_BASE_YEAR, 1, 1).toEpochDay() + SOLAR_LUNAR_DAY_DIFF - 1;
+    }
+
     private KoreanLunarCalendar() {
     }
 
@@ -186,20 +268,208 @@ public class KoreanLunarCalendar {
         private static final KoreanLunarCalendar INSTANCE = new KoreanLunarCalendar();
     }
 
-    private int getLunarData(int year) {
+    /**
+     * Puts a cache in front of {@link #setSolarDate(int, int, int)}, {@link #setLunarDate(int, int, int, boolean)}
+     * and the gapja methods of this instance.
+     *
+     * @param conversionCache the cache, or null to convert directly
+     */
+    public void setConversionCache(ConversionCache conversionCache) {
+        this.conversionCache = conversionCache;
+    }
+
+    /**
+     * 
+     * @return the cache set by {@link #setConversionCache(ConversionCache)}, or null
+     */
+    public ConversionCache getConversionCache() {
+        return conversionCache;
+    }
+
+    /**
+     * Per-month tables (about 100 KB), built on the first conversion rather than at class initialization.
+     */
+    private static class MonthTableHolder {
+        // start offset of each month within its lunar year, index : (year - KOREAN_LUNAR_BASE_YEAR) * 13 + slot
+        private static final int[] LUNAR_DAYS_BEFORE_MONTH;
+        // absolute day of the first day of every lunar month in chronological order
+        private static final int[] LUNAR_MONTH_START_ABS_DAYS;
+        // packed lunar date of day 0 of every lunar month, same order as above
+        private static final int[] LUNAR_MONTH_START_INFO;
+        // index of the first month of each lunar year in the arrays above
+        private static final int[] LUNAR_YEAR_FIRST_MONTH_INDEX;
+
+        static {
+            int[] yearData = KOREAN_LUNAR_DATA;
+            int baseYear = KOREAN_LUNAR_BASE_YEAR;
+            int[] lunarDaysBeforeYear = LUNAR_DAYS_BEFORE_YEAR;
+
+            int monthCount = 0;
+            for (int i = 0; i < yearData.length; i++) {
+                monthCount += getLunarIntercalationMonth(yearData[i]) > 0 ? 13 : 12;
+            }
+
+            int[] lunarDaysBeforeMonth = new int[yearData.length * LUNAR_MONTH_SLOTS];
+            int[] monthStartAbsDays = new int[monthCount];
+            int[] monthStartInfo = new int[monthCount];
+            int[] yearFirstMonthIndex = new int[yearData.length];
+            int monthIndex = 0;
+            for (int i = 0; i < yearData.length; i++) {
+                int year = baseYear + i;
+                int lunarData = yearData[i];
+                int intercalationMonth = getLunarIntercalationMonth(lunarData);
+                yearFirstMonthIndex[i] = monthIndex;
+                int days = 0;
+                for (int month = 1; month < 13; month++) {
+                    lunarDaysBeforeMonth[i * LUNAR_MONTH_SLOTS + month - 1] = days;
+                    monthStartAbsDays[monthIndex] = lunarDaysBeforeYear[i] + days + 1;
+                    monthStartInfo[monthIndex++] = PackedDate.encodeLunar(year, month, 0, false);
+                    // same as getLunarDays(year, month, isIntercalation), inlined for the interpreter
+                    days += LUNAR_SMALL_MONTH_DAY + ((lunarData >> (12 - month)) & 0x01);
+                    if (month == intercalationMonth) {
+                        lunarDaysBeforeMonth[i * LUNAR_MONTH_SLOTS + LUNAR_INTERCALATION_SLOT] = days;
+                        monthStartAbsDays[monthIndex] = lunarDaysBeforeYear[i] + days + 1;
+                        monthStartInfo[monthIndex++] = PackedDate.encodeLunar(year, month, 0, true);
+                        days += LUNAR_SMALL_MONTH_DAY + ((lunarData >> 16) & 0x01);
+                    }
+                }
+            }
+
+            LUNAR_DAYS_BEFORE_MONTH = lunarDaysBeforeMonth;
+            LUNAR_MONTH_START_ABS_DAYS = monthStartAbsDays;
+            LUNAR_MONTH_START_INFO = monthStartInfo;
+            LUNAR_YEAR_FIRST_MONTH_INDEX = yearFirstMonthIndex;
+        }
+
+        static void initialize() {
+        }
+    }
+
+    /**
+     * Built on first use in dense mode only, so the default footprint stays at the compact tables.
+     */
+    private static class DenseTableHolder {
+        // packed lunar date of every absolute day, index : absDays - 1. Taken from the loaded data file or the
+        // embedded precomputed table when they have one
+        private static final IntBuffer LUNAR_DATE_BY_ABS_DAYS;
+        // absolute day of the first day of each month, index : (year - KOREAN_LUNAR_BASE_YEAR) * 13 + slot
+        private static final int[] LUNAR_MONTH_START_ABS_DAYS_BY_SLOT;
+
+        static {
+            IntBuffer dayIndex = DATA_TABLE.getDayIndex();
+            if (dayIndex == null) {
+                dayIndex = KoreanLunarDataTable.loadEmbeddedDayIndex(DATA_TABLE);
+            }
+            LUNAR_DATE_BY_ABS_DAYS = dayIndex != null ? dayIndex : IntBuffer.wrap(DATA_TABLE.buildDayIndex());
+
+            int[] lunarDaysBeforeYear = LUNAR_DAYS_BEFORE_YEAR;
+            int[] lunarDaysBeforeMonth = MonthTableHolder.LUNAR_DAYS_BEFORE_MONTH;
+            int[] monthStartAbsDaysBySlot = new int[lunarDaysBeforeMonth.length];
+            for (int i = 0; i < monthStartAbsDaysBySlot.length; i++) {
+                monthStartAbsDaysBySlot[i] = lunarDaysBeforeYear[i / LUNAR_MONTH_SLOTS] + lunarDaysBeforeMonth[i] + 1;
+            }
+            LUNAR_MONTH_START_ABS_DAYS_BY_SLOT = monthStartAbsDaysBySlot;
+        }
+
+        static void initialize() {
+        }
+    }
+
+    /**
+     * Builds the lookup tables that are otherwise built on first use : the per-month tables, and the dense tables
+     * when dense mode is enabled. Long-running services can call it at startup to keep that cost off the first
+     * request; short-lived tools are better off without it.
+     */
+    public static void warmUp() {
+        MonthTableHolder.initialize();
+        if (denseTableEnabled) {
+            DenseTableHolder.initialize();
+        }
+    }
+
+    /**
+     * Switches between the compact lookup tables (default, a few tens of KB) and the dense
+     * tables (one packed int per supported day, about 1.5 MB) which turn solar to lunar
+     * conversion into a single array read. The dense tables are built on first use after
+     * enabling (or by {@link #warmUp()}), or read from the day index of the loaded
+     * {@link KoreanLunarDataTable} or of the table embedded at build time. The initial value can be set with the
+     * {@code com.github.usingsky.calendar.denseTable} system property.
+     *
+     * @param enabled
+     */
+    public static void setDenseTableEnabled(boolean enabled) {
+        denseTableEnabled = enabled;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public static boolean isDenseTableEnabled() {
+        return denseTableEnabled;
+    }
+
+    static int getLunarMinYear() {
+        return KOREAN_LUNAR_BASE_YEAR;
+    }
+
+    static int getLunarMaxYear() {
+        return KOREAN_LUNAR_BASE_YEAR + KOREAN_LUNAR_DATA.length - 1;
+    }
+
+    static int getSolarLunarDayDiff() {
+        return SOLAR_LUNAR_DAY_DIFF;
+    }
+
+    static int getMaxAbsDays() {
+        return MAX_ABS_DAYS;
+    }
+
+    static long getEpochDay(int absDays) {
+        return EPOCH_DAY_OF_ABS_DAYS_ZERO + absDays;
+    }
+
+    static int getAbsDaysByEpochDay(long epochDay) {
+        long absDays = epochDay - EPOCH_DAY_OF_ABS_DAYS_ZERO;
+        return absDays < 1 || absDays > MAX_ABS_DAYS ? 0 : (int) absDays;
+    }
+
+    static int getLunarMonthCount() {
+        return MonthTableHolder.LUNAR_MONTH_START_ABS_DAYS.length;
+    }
+
+    static int getLunarMonthIndex(int year, int month, boolean isIntercalation) {
+        int yearIndex = year - KOREAN_LUNAR_BASE_YEAR;
+        int intercalationMonth = getLunarIntercalationMonth(KOREAN_LUNAR_DATA[yearIndex]);
+        int monthIndex = MonthTableHolder.LUNAR_YEAR_FIRST_MONTH_INDEX[yearIndex] + month - 1;
+        if (intercalationMonth > 0 && (month > intercalationMonth || (month == intercalationMonth && isIntercalation))) {
+            monthIndex++;
+        }
+        return monthIndex;
+    }
+
+    static int getLunarMonthStartAbsDays(int monthIndex) {
+        return MonthTableHolder.LUNAR_MONTH_START_ABS_DAYS[monthIndex];
+    }
+
+    static int getLunarMonthStartPacked(int monthIndex) {
+        return MonthTableHolder.LUNAR_MONTH_START_INFO[monthIndex];
+    }
+
+    static int getLunarData(int year) {
         return KOREAN_LUNAR_DATA[year - KOREAN_LUNAR_BASE_YEAR];
     }
 
-    private int getLunarIntercalationMonth(int lunarData) {
+    static int getLunarIntercalationMonth(int lunarData) {
         return (lunarData >> 12) & 0x000F;
     }
 
-    private int getLunarDays(int year) {
+    static int getLunarDays(int year) {
         int lunarData = getLunarData(year);
         return (lunarData >> 17) & 0x01FF;
     }
 
-    private int getLunarDays(int year, int month, boolean isIntercalation) {
+    static int getLunarDays(int year, int month, boolean isIntercalation) {
         int days = 0;
         int lunarData = getLunarData(year);
         if (isIntercalation && getLunarIntercalationMonth(lunarData) == month) {
@@ -210,46 +480,33 @@ public class KoreanLunarCalendar {
         return days;
     }
 
-    private int getLunarDaysBeforeBaseYear(int year) {
-        int days = 0;
-        for (int baseYear = KOREAN_LUNAR_BASE_YEAR; baseYear < year + 1; baseYear++) {
-            days += getLunarDays(baseYear);
-        }
-        return days;
+    private static int getLunarDaysBeforeBaseYear(int year) {
+        return year < KOREAN_LUNAR_BASE_YEAR ? 0 : LUNAR_DAYS_BEFORE_YEAR[year - KOREAN_LUNAR_BASE_YEAR + 1];
     }
 
-    private int getLunarDaysBeforeBaseMonth(int year, int month, boolean isIntercalation) {
-        int days = 0;
-        if (year >= KOREAN_LUNAR_BASE_YEAR && month > 0) {
-            for (int baseMonth = 1; baseMonth < month + 1; baseMonth++) {
-                days += getLunarDays(year, baseMonth, false);
-            }
-
-            if (isIntercalation) {
-                int intercalationMonth = getLunarIntercalationMonth(getLunarData(year));
-                if (intercalationMonth > 0 && intercalationMonth < month + 1) {
-                    days += getLunarDays(year, intercalationMonth, true);
-                }
-            }
+    static int getLunarAbsDays(int year, int month, int day, boolean isIntercalation) {
+        if (year < KOREAN_LUNAR_BASE_YEAR || month < 1) {
+            return getLunarDaysBeforeBaseYear(year - 1) + day;
         }
-        return days;
-    }
 
-    private int getLunarAbsDays(int year, int month, int day, boolean isIntercalation) {
-        int days = 0;
-        days = getLunarDaysBeforeBaseYear(year - 1) + getLunarDaysBeforeBaseMonth(year, month - 1, true) + day;
+        int yearIndex = year - KOREAN_LUNAR_BASE_YEAR;
+        int monthSlot = month - 1;
+        if (isIntercalation && getLunarIntercalationMonth(KOREAN_LUNAR_DATA[yearIndex]) == month) {
+            monthSlot = LUNAR_INTERCALATION_SLOT;
+        }
 
-        if (isIntercalation && getLunarIntercalationMonth(getLunarData(year)) == month) {
-            days += getLunarDays(year, month, false);
+        if (denseTableEnabled) {
+            return DenseTableHolder.LUNAR_MONTH_START_ABS_DAYS_BY_SLOT[yearIndex * LUNAR_MONTH_SLOTS + monthSlot] + day - 1;
         }
-        return days;
+        return LUNAR_DAYS_BEFORE_YEAR[yearIndex] + MonthTableHolder.LUNAR_DAYS_BEFORE_MONTH[yearIndex * LUNAR_MONTH_SLOTS + monthSlot]
+                + day;
     }
 
-    private boolean isSolarIntercalationYear(int lunarData) {
+    private static boolean isSolarIntercalationYear(int lunarData) {
         return ((lunarData >> 30) & 0x01) > 0;
     }
 
-    private int getSolarDays(int year) {
+    private static int getSolarDays(int year) {
         int days = 0;
         int lunarData = getLunarData(year);
         days = isSolarIntercalationYear(lunarData) ? SOLAR_BIG_YEAR_DAY : SOLAR_SMALL_YEAR_DAY;
@@ -259,7 +516,7 @@ public class KoreanLunarCalendar {
         return days;
     }
 
-    private int getSolarDays(int year, int month) {
+    static int getSolarDays(int year, int month) {
         int days = 0;
         int lunarData = getLunarData(year);
         if (month == 2 && isSolarIntercalationYear(lunarData)) {
@@ -270,101 +527,148 @@ public class KoreanLunarCalendar {
         return days;
     }
 
-    private int getSolarDayBeforeBaseYear(int year) {
-        int days = 0;
-        for (int baseYear = KOREAN_LUNAR_BASE_YEAR; baseYear < year + 1; baseYear++) {
-            days += getSolarDays(baseYear);
-        }
-        return days;
+    private static int getSolarDayBeforeBaseYear(int year) {
+        return year < KOREAN_LUNAR_BASE_YEAR ? 0 : SOLAR_DAYS_BEFORE_YEAR[year - KOREAN_LUNAR_BASE_YEAR + 1];
     }
 
-    private int getSolarDaysBeforeBaseMonth(int year, int month) {
-        int days = 0;
-        for (int baseMonth = 1; baseMonth < month + 1; baseMonth++) {
-            days += getSolarDays(year, baseMonth);
+    private static int getSolarDaysBeforeBaseMonth(int year, int month) {
+        // January and February start at the same offset in common and leap years
+        int monthIndex = month;
+        if (month > 1 && isSolarIntercalationYear(getLunarData(year))) {
+            monthIndex += 13;
         }
-        return days;
+        return SOLAR_DAYS_BEFORE_MONTH[monthIndex];
     }
 
-    private int getSolarAbsDays(int year, int month, int day) {
+    static int getSolarAbsDays(int year, int month, int day) {
         int days = 0;
         days = getSolarDayBeforeBaseYear(year - 1) + getSolarDaysBeforeBaseMonth(year, month - 1) + day;
         days -= SOLAR_LUNAR_DAY_DIFF;
         return days;
     }
 
-    private void setSolarDateByLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
-        int absDays = getLunarAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
-        int solarYear = 0;
-        int solarMonth = 0;
-        int solarDay = 0;
-
-        solarYear = (absDays < getSolarAbsDays(lunarYear + 1, 1, 1)) ? lunarYear : lunarYear + 1;
-
-        for (int month = 12; month > 0; month--) {
-            int absDaysByMonth = getSolarAbsDays(solarYear, month, 1);
-            if (absDays >= absDaysByMonth) {
-                solarMonth = month;
-                solarDay = absDays - absDaysByMonth + 1;
-                break;
-            }
+    static int getSolarDateValueByAbsDays(int absDays) {
+        int packed = getPackedSolarDateByAbsDays(absDays);
+        return PackedDate.getSolarYear(packed) * 10000 + PackedDate.getSolarMonth(packed) * 100
+                + PackedDate.getSolarDay(packed);
+    }
+
+    static int getPackedSolarDateByAbsDays(int absDays) {
+        int days = absDays + SOLAR_LUNAR_DAY_DIFF - 1;
+
+        // proleptic gregorian years average 365.2425 days, the estimate is off by one year at most
+        int yearIndex = (int) ((long) days * 400 / 146097);
+        if (SOLAR_DAYS_BEFORE_YEAR[yearIndex] > days) {
+            yearIndex--;
+        } else if (SOLAR_DAYS_BEFORE_YEAR[yearIndex + 1] <= days) {
+            yearIndex++;
         }
 
-        setSolarYear(solarYear);
-        setSolarMonth(solarMonth);
-        setSolarDay(solarDay);
+        int solarYear = KOREAN_LUNAR_BASE_YEAR + yearIndex;
+        int dayOfYear = days - SOLAR_DAYS_BEFORE_YEAR[yearIndex];
+        boolean isLeapYear = isSolarIntercalationYear(KOREAN_LUNAR_DATA[yearIndex]);
+        int solarMonth = SOLAR_MONTH_BY_DAY_OF_YEAR[(isLeapYear ? SOLAR_BIG_YEAR_DAY : 0) + dayOfYear];
+        int solarDay = dayOfYear - SOLAR_DAYS_BEFORE_MONTH[(isLeapYear ? 13 : 0) + solarMonth - 1] + 1;
+
+        return PackedDate.encodeSolar(solarYear, solarMonth, solarDay);
     }
 
-    private void setLunarDateBySolarDate(int solarYear, int solarMonth, int solarDay) {
-        int absDays = getSolarAbsDays(solarYear, solarMonth, solarDay);
-        int lunarYear = 0;
-        int lunarMonth = 0;
-        int lunarDay = 0;
-        boolean isIntercalation = false;
+    private static SolarDate getSolarDateByAbsDays(int absDays) {
+        int dateValue = getSolarDateValueByAbsDays(absDays);
+        return new SolarDate(dateValue / 10000, dateValue / 100 % 100, dateValue % 100);
+    }
+
+    static SolarDate getSolarDateByLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        return getSolarDateByAbsDays(getLunarAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation));
+    }
 
-        lunarYear = (absDays >= getLunarAbsDays(solarYear, 1, 1, false)) ? solarYear : solarYear - 1;
+    private void setSolarDateByLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        ConversionCache cache = conversionCache;
+        SolarDate solarDate = cache != null ? cache.toSolarDate(lunarYear, lunarMonth, lunarDay, isIntercalation)
+                : getSolarDateByLunarDate(lunarYear, lunarMonth, lunarDay, isIntercalation);
 
-        for (int month = 12; month > 0; month--) {
-            int absDaysByMonth = getLunarAbsDays(lunarYear, month, 1, false);
-            if (absDays >= absDaysByMonth) {
-                lunarMonth = month;
+        setSolarYear(solarDate.getYear());
+        setSolarMonth(solarDate.getMonth());
+        setSolarDay(solarDate.getDay());
+    }
 
-                if (getLunarIntercalationMonth(getLunarData(lunarYear)) == month) {
-                    isIntercalation = absDays >= getLunarAbsDays(lunarYear, month, 1, true);
-                }
+    private static int getLunarMonthIndex(int absDays) {
+        int monthIndex = Arrays.binarySearch(MonthTableHolder.LUNAR_MONTH_START_ABS_DAYS, absDays);
+        return monthIndex >= 0 ? monthIndex : -monthIndex - 2;
+    }
 
-                lunarDay = absDays - getLunarAbsDays(lunarYear, lunarMonth, 1, isIntercalation) + 1;
-                break;
-            }
+    static int getPackedLunarDateByAbsDays(int absDays) {
+        if (denseTableEnabled) {
+            return DenseTableHolder.LUNAR_DATE_BY_ABS_DAYS.get(absDays - 1);
         }
 
-        setLunarYear(lunarYear);
-        setLunarMonth(lunarMonth);
-        setLunarDay(lunarDay);
-        setIntercalation(isIntercalation);
+        int monthIndex = getLunarMonthIndex(absDays);
+        return MonthTableHolder.LUNAR_MONTH_START_INFO[monthIndex] + absDays
+                - MonthTableHolder.LUNAR_MONTH_START_ABS_DAYS[monthIndex] + 1;
     }
 
-    private boolean checkValidDate(boolean isLunar, boolean isIntercalation, int year, int month, int day) {
-        boolean isValid = false;
+    static LunarDate getLunarDateByAbsDays(int absDays) {
+        int packed = getPackedLunarDateByAbsDays(absDays);
+        return new LunarDate(PackedDate.getLunarYear(packed), PackedDate.getLunarMonth(packed),
+                PackedDate.getLunarDay(packed), PackedDate.isIntercalation(packed));
+    }
+
+    static LunarDate getLunarDateBySolarDate(int solarYear, int solarMonth, int solarDay) {
+        return getLunarDateByAbsDays(getSolarAbsDays(solarYear, solarMonth, solarDay));
+    }
+
+    private void setLunarDateBySolarDate(int solarYear, int solarMonth, int solarDay) {
+        ConversionCache cache = conversionCache;
+        LunarDate lunarDate = cache != null ? cache.toLunarDate(solarYear, solarMonth, solarDay)
+                : getLunarDateBySolarDate(solarYear, solarMonth, solarDay);
+
+        setLunarYear(lunarDate.getYear());
+        setLunarMonth(lunarDate.getMonth());
+        setLunarDay(lunarDate.getDay());
+        setIntercalation(lunarDate.isIntercalation());
+    }
+
+    static boolean checkValidDate(boolean isLunar, boolean isIntercalation, int year, int month, int day) {
+        // an intercalation flag on a month without intercalation is read as the regular month
+        int result = validateDate(isLunar, isIntercalation, year, month, day);
+        return result == KoreanLunarValidator.VALID || result == KoreanLunarValidator.NO_SUCH_INTERCALATION_MONTH;
+    }
+
+    static int validateDate(boolean isLunar, boolean isIntercalation, int year, int month, int day) {
+        if (year < getLunarMinYear() || year > getLunarMaxYear()) {
+            return KoreanLunarValidator.OUT_OF_RANGE;
+        }
+        if (month < 1 || month > 12) {
+            return KoreanLunarValidator.INVALID_MONTH;
+        }
+        if (day < 1) {
+            return KoreanLunarValidator.INVALID_DAY;
+        }
         int dateValue = year * 10000 + month * 100 + day;
+        if ((isLunar ? KOREAN_LUNAR_MIN_VALUE : KOREAN_SOLAR_MIN_VALUE) > dateValue
+                || (isLunar ? KOREAN_LUNAR_MAX_VALUE : KOREAN_SOLAR_MAX_VALUE) < dateValue) {
+            return KoreanLunarValidator.OUT_OF_RANGE;
+        }
+
+        if (isLunar) {
+            boolean hasIntercalation = getLunarIntercalationMonth(getLunarData(year)) == month;
+            int dayLimit = getLunarDays(year, month, isIntercalation && hasIntercalation);
+            if (day > dayLimit) {
+                return day == LUNAR_BIG_MONTH_DAY ? KoreanLunarValidator.NO_SUCH_DAY_30 : KoreanLunarValidator.INVALID_DAY;
+            }
+            return isIntercalation && !hasIntercalation ? KoreanLunarValidator.NO_SUCH_INTERCALATION_MONTH
+                    : KoreanLunarValidator.VALID;
+        }
+
+        int dayLimit = getSolarDays(year, month);
         // 1582. 10. 5 ~ 1582. 10. 14 is not enable
-        if ((isLunar ? KOREAN_LUNAR_MIN_VALUE : KOREAN_SOLAR_MIN_VALUE) <= dateValue
-                && (isLunar ? KOREAN_LUNAR_MAX_VALUE : KOREAN_SOLAR_MAX_VALUE) >= dateValue) {
-            if (month > 0 && month < 13 && day > 0) {
-                int dayLimit = isLunar ? getLunarDays(year, month, isIntercalation) : getSolarDays(year, month);
-                if (!isLunar && year == 1582 && month == 10) {
-                    if (day > 4 && day < 15) {
-                        return false;
-                    } else {
-                        dayLimit += 10;
-                    }
-                }
-                if (day <= dayLimit) {
-                    isValid = true;
-                }
+        if (year == 1582 && month == 10) {
+            if (day > 4 && day < 15) {
+                return KoreanLunarValidator.SOLAR_GAP;
             }
+            dayLimit += 10;
         }
-        return isValid;
+        return day > dayLimit ? KoreanLunarValidator.INVALID_DAY : KoreanLunarValidator.VALID;
     }
 
     /**
@@ -376,6 +680,7 @@ public class KoreanLunarCalendar {
      * @return
      */
     public boolean setLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
         boolean isValid = false;
         if (checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
             setLunarYear(lunarYear);
@@ -385,6 +690,11 @@ public class KoreanLunarCalendar {
             setSolarDateByLunarDate(lunarYear, lunarMonth, lunarDay, isIntercalation);
             isValid = true;
         }
+        // calls through a cache are recorded by the cache
+        if (ConversionMetrics.ENABLED && (!isValid || conversionCache == null)) {
+            ConversionMetrics.record(ConversionMetrics.Operation.LUNAR_TO_SOLAR,
+                    isValid ? ConversionMetrics.Outcome.VALID : ConversionMetrics.Outcome.INVALID, start);
+        }
         return isValid;
     }
 
@@ -396,6 +706,7 @@ public class KoreanLunarCalendar {
      * @return
      */
     public boolean setSolarDate(int solarYear, int solarMonth, int solarDay) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
         boolean isValid = false;
         if (checkValidDate(false, false, solarYear, solarMonth, solarDay)) {
             setSolarYear(solarYear);
@@ -404,81 +715,427 @@ public class KoreanLunarCalendar {
             setLunarDateBySolarDate(solarYear, solarMonth, solarDay);
             isValid = true;
         }
+        if (ConversionMetrics.ENABLED && (!isValid || conversionCache == null)) {
+            ConversionMetrics.record(ConversionMetrics.Operation.SOLAR_TO_LUNAR,
+                    isValid ? ConversionMetrics.Outcome.VALID : ConversionMetrics.Outcome.INVALID, start);
+        }
         return isValid;
     }
 
-    private void getGapJa() {
-        int absDays = getLunarAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
-        if (absDays > 0) {
-            gapjaYearInx[0] = ((lunarYear + 6) - KOREAN_LUNAR_BASE_YEAR) % KOREAN_CHEONGAN.length;
-            gapjaYearInx[1] = ((lunarYear + 0) - KOREAN_LUNAR_BASE_YEAR) % KOREAN_GANJI.length;
+    /**
+     * Converts a lunar date to a solar date without touching any shared state.
+     * Safe to call concurrently from any number of threads.
+     *
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return the solar date, or null if the lunar date is not valid
+     */
+    public static SolarDate toSolarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        SolarDate solarDate = null;
+        if (checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
+            solarDate = getSolarDateByLunarDate(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        }
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.LUNAR_TO_SOLAR,
+                    solarDate != null ? ConversionMetrics.Outcome.VALID : ConversionMetrics.Outcome.INVALID, start);
+        }
+        return solarDate;
+    }
 
-            int monthCount = this.lunarMonth;
-            monthCount += 12 * (lunarYear - KOREAN_LUNAR_BASE_YEAR);
-            gapjaMonthInx[0] = (monthCount + 3) % KOREAN_CHEONGAN.length;
-            gapjaMonthInx[1] = (monthCount + 1) % KOREAN_GANJI.length;
+    /**
+     * Converts a solar date to a lunar date without touching any shared state.
+     * Safe to call concurrently from any number of threads.
+     *
+     * @param solarYear
+     * @param solarMonth
+     * @param solarDay
+     * @return the lunar date, or null if the solar date is not valid
+     */
+    public static LunarDate toLunarDate(int solarYear, int solarMonth, int solarDay) {
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        LunarDate lunarDate = null;
+        if (checkValidDate(false, false, solarYear, solarMonth, solarDay)) {
+            lunarDate = getLunarDateBySolarDate(solarYear, solarMonth, solarDay);
+        }
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.SOLAR_TO_LUNAR,
+                    lunarDate != null ? ConversionMetrics.Outcome.VALID : ConversionMetrics.Outcome.INVALID, start);
+        }
+        return lunarDate;
+    }
+
+    /**
+     * Converts solar dates to lunar dates in one pass without allocating per element.
+     * Dates are yyyyMMdd int values (e.g. 20170624) and invalid inputs produce {@link #INVALID_DATE}.
+     * Inputs may be in any order, runs of nearby dates reuse the month found for the previous one.
+     *
+     * @param solarDates solar dates as yyyyMMdd
+     * @param lunarDates receives the lunar dates as yyyyMMdd
+     * @param intercalations receives the intercalation flag of each lunar date, may be null
+     */
+    public static void solarToLunar(int[] solarDates, int[] lunarDates, boolean[] intercalations) {
+        solarToLunar(solarDates, lunarDates, intercalations, 0, solarDates.length);
+    }
 
-            gapjaDayInx[0] = (absDays + 4) % KOREAN_CHEONGAN.length;
-            gapjaDayInx[1] = (absDays + 2) % KOREAN_GANJI.length;
+    /**
+     * Converts the solar dates in {@code [fromIndex, toIndex)}, see {@link #solarToLunar(int[], int[], boolean[])}.
+     *
+     * @param solarDates
+     * @param lunarDates
+     * @param intercalations
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void solarToLunar(int[] solarDates, int[] lunarDates, boolean[] intercalations, int fromIndex, int toIndex) {
+        checkBulkRange(solarDates.length, fromIndex, toIndex);
+        checkBulkRange(lunarDates.length, fromIndex, toIndex);
+        if (intercalations != null) {
+            checkBulkRange(intercalations.length, fromIndex, toIndex);
+        }
+
+        int[] monthStartAbsDays = MonthTableHolder.LUNAR_MONTH_START_ABS_DAYS;
+        int[] monthStartInfo = MonthTableHolder.LUNAR_MONTH_START_INFO;
+        int monthIndex = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = solarDates[i];
+            int year = dateValue / 10000;
+            int month = dateValue / 100 % 100;
+            int day = dateValue % 100;
+
+            int packed = 0;
+            if (checkValidDate(false, false, year, month, day)) {
+                int absDays = getSolarAbsDays(year, month, day);
+                if (denseTableEnabled) {
+                    packed = DenseTableHolder.LUNAR_DATE_BY_ABS_DAYS.get(absDays - 1);
+                } else {
+                    if (absDays < monthStartAbsDays[monthIndex] || (monthIndex + 1 < monthStartAbsDays.length
+                            && absDays >= monthStartAbsDays[monthIndex + 1])) {
+                        monthIndex = getLunarMonthIndex(absDays);
+                    }
+                    packed = monthStartInfo[monthIndex] + absDays - monthStartAbsDays[monthIndex] + 1;
+                }
+            }
+
+            lunarDates[i] = packed == PackedDate.INVALID ? INVALID_DATE : PackedDate.getLunarYear(packed) * 10000
+                    + PackedDate.getLunarMonth(packed) * 100 + PackedDate.getLunarDay(packed);
+            if (intercalations != null) {
+                intercalations[i] = PackedDate.isIntercalation(packed);
+            }
         }
     }
 
     /**
-     * 
+     * Converts lunar dates to solar dates in one pass without allocating per element.
+     * Dates are yyyyMMdd int values (e.g. 19560121) and invalid inputs produce {@link #INVALID_DATE}.
+     *
+     * @param lunarDates lunar dates as yyyyMMdd
+     * @param intercalations intercalation flag of each lunar date, null if none is intercalation
+     * @param solarDates receives the solar dates as yyyyMMdd
+     */
+    public static void lunarToSolar(int[] lunarDates, boolean[] intercalations, int[] solarDates) {
+        lunarToSolar(lunarDates, intercalations, solarDates, 0, lunarDates.length);
+    }
+
+    /**
+     * Converts the lunar dates in {@code [fromIndex, toIndex)}, see {@link #lunarToSolar(int[], boolean[], int[])}.
+     *
+     * @param lunarDates
+     * @param intercalations
+     * @param solarDates
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void lunarToSolar(int[] lunarDates, boolean[] intercalations, int[] solarDates, int fromIndex, int toIndex) {
+        checkBulkRange(lunarDates.length, fromIndex, toIndex);
+        checkBulkRange(solarDates.length, fromIndex, toIndex);
+        if (intercalations != null) {
+            checkBulkRange(intercalations.length, fromIndex, toIndex);
+        }
+
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = lunarDates[i];
+            int year = dateValue / 10000;
+            int month = dateValue / 100 % 100;
+            int day = dateValue % 100;
+            boolean isIntercalation = intercalations != null && intercalations[i];
+
+            if (checkValidDate(true, isIntercalation, year, month, day)) {
+                solarDates[i] = getSolarDateValueByAbsDays(getLunarAbsDays(year, month, day, isIntercalation));
+            } else {
+                solarDates[i] = INVALID_DATE;
+            }
+        }
+    }
+
+    /**
+     * Returns a cursor stepping one day at a time through the solar dates from {@code solarStartDate}
+     * to {@code solarEndDate} (inclusive, yyyyMMdd values). Each step carries the previous lunar and
+     * solar date forward so it costs constant time and allocates nothing.
+     *
+     * @param solarStartDate
+     * @param solarEndDate
      * @return
      */
-    public String getGapjaString() {
-        getGapJa();
+    public static LunarDateCursor cursor(int solarStartDate, int solarEndDate) {
+        return new LunarDateCursor(getSolarAbsDays(solarStartDate), getSolarAbsDays(solarEndDate));
+    }
 
-        StringBuilder gapjaString = new StringBuilder();
-        gapjaString.append(KOREAN_CHEONGAN[gapjaYearInx[0]]);
-        gapjaString.append(KOREAN_GANJI[gapjaYearInx[1]]);
-        gapjaString.append(KOREAN_GAPJA_UNIT[gapjaYearInx[2]]);
-        gapjaString.append(" ");
-        gapjaString.append(KOREAN_CHEONGAN[gapjaMonthInx[0]]);
-        gapjaString.append(KOREAN_GANJI[gapjaMonthInx[1]]);
-        gapjaString.append(KOREAN_GAPJA_UNIT[gapjaMonthInx[2]]);
-        gapjaString.append(" ");
-        gapjaString.append(KOREAN_CHEONGAN[gapjaDayInx[0]]);
-        gapjaString.append(KOREAN_GANJI[gapjaDayInx[1]]);
-        gapjaString.append(KOREAN_GAPJA_UNIT[gapjaDayInx[2]]);
+    /**
+     * Returns the lunar dates of the solar dates from {@code solarStartDate} to {@code solarEndDate}
+     * (inclusive, yyyyMMdd values) in order. The stream is sized and splits evenly when parallel.
+     *
+     * @param solarStartDate
+     * @param solarEndDate
+     * @return
+     */
+    public static Stream<LunarDate> range(int solarStartDate, int solarEndDate) {
+        return StreamSupport.stream(
+                new LunarDateSpliterator(getSolarAbsDays(solarStartDate), getSolarAbsDays(solarEndDate)), false);
+    }
 
-        if (isIntercalation()) {
-            gapjaString.append(" (");
-            gapjaString.append(INTERCALATION_STR[0]);
-            gapjaString.append(KOREAN_GAPJA_UNIT[1]);
-            gapjaString.append(")");
+    private static int getSolarAbsDays(int solarDate) {
+        int year = solarDate / 10000;
+        int month = solarDate / 100 % 100;
+        int day = solarDate % 100;
+        if (!checkValidDate(false, false, year, month, day)) {
+            throw new IllegalArgumentException("Invalid solar date : " + solarDate);
         }
-        return gapjaString.toString();
+        return getSolarAbsDays(year, month, day);
+    }
+
+    /**
+     * Parallel version of {@link #solarToLunar(int[], int[], boolean[])} running on the common fork/join pool.
+     *
+     * @param solarDates
+     * @param lunarDates
+     * @param intercalations
+     */
+    public static void parallelSolarToLunar(int[] solarDates, int[] lunarDates, boolean[] intercalations) {
+        parallelSolarToLunar(solarDates, lunarDates, intercalations, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel version of {@link #solarToLunar(int[], int[], boolean[])} running on the given fork/join pool,
+     * whose parallelism bounds the number of threads used.
+     *
+     * @param solarDates
+     * @param lunarDates
+     * @param intercalations
+     * @param pool
+     */
+    public static void parallelSolarToLunar(int[] solarDates, int[] lunarDates, boolean[] intercalations, ForkJoinPool pool) {
+        checkParallelArguments(solarDates, lunarDates, intercalations);
+        pool.invoke(new BulkConversionTask(false, solarDates, lunarDates, intercalations, 0, solarDates.length));
+    }
+
+    /**
+     * Parallel version of {@link #solarToLunar(int[], int[], boolean[])} split into at most {@code parallelism}
+     * contiguous chunks submitted to the given executor. Blocks until every chunk is converted.
+     *
+     * @param solarDates
+     * @param lunarDates
+     * @param intercalations
+     * @param executor
+     * @param parallelism
+     */
+    public static void parallelSolarToLunar(int[] solarDates, int[] lunarDates, boolean[] intercalations,
+            Executor executor, int parallelism) {
+        checkParallelArguments(solarDates, lunarDates, intercalations);
+        convertInChunks(false, solarDates, lunarDates, intercalations, executor, parallelism);
+    }
+
+    /**
+     * Parallel version of {@link #lunarToSolar(int[], boolean[], int[])} running on the common fork/join pool.
+     *
+     * @param lunarDates
+     * @param intercalations
+     * @param solarDates
+     */
+    public static void parallelLunarToSolar(int[] lunarDates, boolean[] intercalations, int[] solarDates) {
+        parallelLunarToSolar(lunarDates, intercalations, solarDates, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parallel version of {@link #lunarToSolar(int[], boolean[], int[])} running on the given fork/join pool,
+     * whose parallelism bounds the number of threads used.
+     *
+     * @param lunarDates
+     * @param intercalations
+     * @param solarDates
+     * @param pool
+     */
+    public static void parallelLunarToSolar(int[] lunarDates, boolean[] intercalations, int[] solarDates, ForkJoinPool pool) {
+        checkParallelArguments(lunarDates, solarDates, intercalations);
+        pool.invoke(new BulkConversionTask(true, lunarDates, solarDates, intercalations, 0, lunarDates.length));
+    }
+
+    /**
+     * Parallel version of {@link #lunarToSolar(int[], boolean[], int[])} split into at most {@code parallelism}
+     * contiguous chunks submitted to the given executor. Blocks until every chunk is converted.
+     *
+     * @param lunarDates
+     * @param intercalations
+     * @param solarDates
+     * @param executor
+     * @param parallelism
+     */
+    public static void parallelLunarToSolar(int[] lunarDates, boolean[] intercalations, int[] solarDates,
+            Executor executor, int parallelism) {
+        checkParallelArguments(lunarDates, solarDates, intercalations);
+        convertInChunks(true, lunarDates, solarDates, intercalations, executor, parallelism);
+    }
+
+    private static void checkParallelArguments(int[] sourceDates, int[] targetDates, boolean[] intercalations) {
+        checkBulkRange(targetDates.length, 0, sourceDates.length);
+        if (intercalations != null) {
+            checkBulkRange(intercalations.length, 0, sourceDates.length);
+        }
+    }
+
+    private static void convertInChunks(final boolean isLunar, final int[] sourceDates, final int[] targetDates,
+            final boolean[] intercalations, Executor executor, int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism(" + parallelism + ") < 1");
+        }
+
+        int length = sourceDates.length;
+        int chunks = Math.max(1, Math.min(parallelism, (length + PARALLEL_MIN_CHUNK - 1) / PARALLEL_MIN_CHUNK));
+        final CountDownLatch latch = new CountDownLatch(chunks);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            final int fromIndex = (int) ((long) length * chunk / chunks);
+            final int toIndex = (int) ((long) length * (chunk + 1) / chunks);
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        new BulkConversionTask(isLunar, sourceDates, targetDates, intercalations, fromIndex, toIndex).convert();
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            });
+        }
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for bulk conversion", e);
+        }
+        if (failure.get() != null) {
+            throw new IllegalStateException("Bulk conversion failed", failure.get());
+        }
+    }
+
+    private static class BulkConversionTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final boolean isLunar;
+        private final int[] sourceDates;
+        private final int[] targetDates;
+        private final boolean[] intercalations;
+        private final int fromIndex;
+        private final int toIndex;
+
+        BulkConversionTask(boolean isLunar, int[] sourceDates, int[] targetDates, boolean[] intercalations,
+                int fromIndex, int toIndex) {
+            this.isLunar = isLunar;
+            this.sourceDates = sourceDates;
+            this.targetDates = targetDates;
+            this.intercalations = intercalations;
+            this.fromIndex = fromIndex;
+            this.toIndex = toIndex;
+        }
+
+        @Override
+        protected void compute() {
+            if (toIndex - fromIndex <= PARALLEL_MIN_CHUNK * 2) {
+                convert();
+            } else {
+                int middleIndex = (fromIndex + toIndex) >>> 1;
+                invokeAll(new BulkConversionTask(isLunar, sourceDates, targetDates, intercalations, fromIndex, middleIndex),
+                        new BulkConversionTask(isLunar, sourceDates, targetDates, intercalations, middleIndex, toIndex));
+            }
+        }
+
+        void convert() {
+            if (isLunar) {
+                lunarToSolar(sourceDates, intercalations, targetDates, fromIndex, toIndex);
+            } else {
+                solarToLunar(sourceDates, targetDates, intercalations, fromIndex, toIndex);
+            }
+        }
+    }
+
+    static void checkBulkRange(int length, int fromIndex, int toIndex) {
+        if (fromIndex > toIndex) {
+            throw new IllegalArgumentException("fromIndex(" + fromIndex + ") > toIndex(" + toIndex + ")");
+        }
+        if (fromIndex < 0 || toIndex > length) {
+            throw new ArrayIndexOutOfBoundsException("[" + fromIndex + ", " + toIndex + ") of length " + length);
+        }
+    }
+
+    // sexagenary cycle index (0 ~ 59) : cheongan = cycle % 10, ganji = cycle % 12
+    static int getGapjaYearCycle(int lunarYear) {
+        // 4 AD is a gapja (0) year
+        return Math.floorMod(lunarYear - 4, 60);
+    }
+
+    static int getGapjaMonthCycle(int lunarYear, int lunarMonth) {
+        // leap months share the cycle of the month they follow
+        return Math.floorMod(12 * lunarYear + lunarMonth + 13, 60);
+    }
+
+    static int getGapjaDayCycle(int absDays) {
+        return getGapjaDayCycleByEpochDay(getEpochDay(absDays));
+    }
+
+    static int getGapjaDayCycleByEpochDay(long epochDay) {
+        // 1970-01-01 is a sinsa (17) day
+        return (int) Math.floorMod(epochDay + 17, 60L);
     }
 
     /**
      * 
      * @return
      */
-    public String getChineseGapJaString() {
-        getGapJa();
-
-        StringBuilder gapjaString = new StringBuilder();
-        gapjaString.append(CHINESE_CHEONGAN[gapjaYearInx[0]]);
-        gapjaString.append(CHINESE_GANJI[gapjaYearInx[1]]);
-        gapjaString.append(CHINESE_GAPJA_UNIT[gapjaYearInx[2]]);
-        gapjaString.append(" ");
-        gapjaString.append(CHINESE_CHEONGAN[gapjaMonthInx[0]]);
-        gapjaString.append(CHINESE_GANJI[gapjaMonthInx[1]]);
-        gapjaString.append(CHINESE_GAPJA_UNIT[gapjaMonthInx[2]]);
-        gapjaString.append(" ");
-        gapjaString.append(CHINESE_CHEONGAN[gapjaDayInx[0]]);
-        gapjaString.append(CHINESE_GANJI[gapjaDayInx[1]]);
-        gapjaString.append(CHINESE_GAPJA_UNIT[gapjaDayInx[2]]);
+    public String getGapjaString() {
+        ConversionCache cache = conversionCache;
+        if (cache != null) {
+            return cache.getGapjaString(lunarYear, lunarMonth, lunarDay, isIntercalation());
+        }
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        String gapja = KoreanLunarFormatter.getGapjaString(lunarYear, lunarMonth, lunarDay, isIntercalation());
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.GAPJA, ConversionMetrics.Outcome.VALID, start);
+        }
+        return gapja;
+    }
 
-        if (isIntercalation()) {
-            gapjaString.append(" (");
-            gapjaString.append(INTERCALATION_STR[1]);
-            gapjaString.append(CHINESE_GAPJA_UNIT[1]);
-            gapjaString.append(")");
+    /**
+     * 
+     * @return
+     */
+    public String getChineseGapJaString() {
+        ConversionCache cache = conversionCache;
+        if (cache != null) {
+            return cache.getChineseGapJaString(lunarYear, lunarMonth, lunarDay, isIntercalation());
+        }
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        String gapja = KoreanLunarFormatter.getChineseGapJaString(lunarYear, lunarMonth, lunarDay, isIntercalation());
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.GAPJA, ConversionMetrics.Outcome.VALID, start);
         }
-        return gapjaString.toString();
+        return gapja;
     }
 
     /**
@@ -486,11 +1143,12 @@ public class KoreanLunarCalendar {
      * @return
      */
     public String getLunarIsoFormat() {
-        String isoStr = String.format("%04d-%02d-%02d", lunarYear, lunarMonth, lunarDay);
-        if (isIntercalation())
-            isoStr += " Intercalation";
-
-        return isoStr;
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        String isoFormat = KoreanLunarFormatter.getIsoFormat(lunarYear, lunarMonth, lunarDay, isIntercalation());
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.FORMAT, ConversionMetrics.Outcome.VALID, start);
+        }
+        return isoFormat;
     }
 
     /**
@@ -498,9 +1156,12 @@ public class KoreanLunarCalendar {
      * @return
      */
     public String getSolarIsoFormat() {
-        String isoStr = String.format("%04d-%02d-%02d", solarYear, solarMonth, solarDay);
-
-        return isoStr;
+        long start = ConversionMetrics.ENABLED ? System.nanoTime() : 0;
+        String isoFormat = KoreanLunarFormatter.getIsoFormat(solarYear, solarMonth, solarDay, false);
+        if (ConversionMetrics.ENABLED) {
+            ConversionMetrics.record(ConversionMetrics.Operation.FORMAT, ConversionMetrics.Outcome.VALID, start);
+        }
+        return isoFormat;
     }
 
     /**
@@ -0,0 +1,225 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.time.DateTimeException;
+import java.time.chrono.AbstractChronology;
+import java.time.chrono.Era;
+import java.time.chrono.IsoEra;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalField;
+import java.time.temporal.ValueRange;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The Korean lunar calendar (KARI) as a {@link java.time.chrono.Chronology}.
+ * Dates are {@link KoreanLunarDate} keyed on the epoch day, so conversions from and to
+ * {@link java.time.LocalDate} are table lookups. Years are counted like the common era,
+ * {@code MONTH_OF_YEAR} is the lunar month number (1 ~ 12) and an intercalation month
+ * shares the number of the month it follows, see {@link KoreanLunarDate#isIntercalation()}.
+ * {@code PROLEPTIC_MONTH} counts the months of the table from 0, intercalation months included.
+ * <p>
+ * The chronology is registered as a service, so {@code Chronology.of("KoreanLunar")} finds it.
+ */
+public final class KoreanLunarChronology extends AbstractChronology {
+
+    /**
+     * Singleton instance.
+     */
+    public static final KoreanLunarChronology INSTANCE = new KoreanLunarChronology();
+
+    /**
+     * Only for {@link java.util.ServiceLoader}, use {@link #INSTANCE}.
+     */
+    @Deprecated
+    public KoreanLunarChronology() {
+    }
+
+    @Override
+    public String getId() {
+        return "KoreanLunar";
+    }
+
+    /**
+     * 
+     * @return the CLDR calendar type of the Korean lunar calendar
+     */
+    @Override
+    public String getCalendarType() {
+        return "dangi";
+    }
+
+    @Override
+    public KoreanLunarDate date(int prolepticYear, int month, int dayOfMonth) {
+        return KoreanLunarDate.of(prolepticYear, month, dayOfMonth);
+    }
+
+    /**
+     * 
+     * @param prolepticYear
+     * @param month
+     * @param dayOfMonth
+     * @param isIntercalation
+     * @return
+     */
+    public KoreanLunarDate date(int prolepticYear, int month, int dayOfMonth, boolean isIntercalation) {
+        return KoreanLunarDate.of(prolepticYear, month, dayOfMonth, isIntercalation);
+    }
+
+    @Override
+    public KoreanLunarDate date(Era era, int yearOfEra, int month, int dayOfMonth) {
+        return date(prolepticYear(era, yearOfEra), month, dayOfMonth);
+    }
+
+    @Override
+    public KoreanLunarDate dateYearDay(int prolepticYear, int dayOfYear) {
+        return KoreanLunarDate.of(prolepticYear, 1, 1).withDayOfYear(dayOfYear);
+    }
+
+    @Override
+    public KoreanLunarDate dateYearDay(Era era, int yearOfEra, int dayOfYear) {
+        return dateYearDay(prolepticYear(era, yearOfEra), dayOfYear);
+    }
+
+    @Override
+    public KoreanLunarDate dateEpochDay(long epochDay) {
+        return KoreanLunarDate.ofEpochDay(epochDay);
+    }
+
+    @Override
+    public KoreanLunarDate date(TemporalAccessor temporal) {
+        return KoreanLunarDate.from(temporal);
+    }
+
+    @Override
+    public KoreanLunarDate dateNow() {
+        return KoreanLunarDate.now();
+    }
+
+    /**
+     * A lunar year is a leap year when it has an intercalation month.
+     */
+    @Override
+    public boolean isLeapYear(long prolepticYear) {
+        if (prolepticYear < KoreanLunarCalendar.getLunarMinYear() || prolepticYear > KoreanLunarCalendar.getLunarMaxYear()) {
+            return false;
+        }
+        return KoreanLunarCalendar.getLunarIntercalationMonth(KoreanLunarCalendar.getLunarData((int) prolepticYear)) > 0;
+    }
+
+    @Override
+    public int prolepticYear(Era era, int yearOfEra) {
+        if (era != IsoEra.CE) {
+            throw new ClassCastException("Era must be IsoEra.CE");
+        }
+        return yearOfEra;
+    }
+
+    @Override
+    public Era eraOf(int eraValue) {
+        if (eraValue != IsoEra.CE.getValue()) {
+            throw new DateTimeException("Invalid era: " + eraValue);
+        }
+        return IsoEra.CE;
+    }
+
+    @Override
+    public List<Era> eras() {
+        return Collections.<Era>singletonList(IsoEra.CE);
+    }
+
+    /**
+     * Resolves {@code PROLEPTIC_MONTH} to the month of the table it counts, as the default resolution reads it
+     * as {@code 12 * year + month - 1}. With {@code DAY_OF_MONTH} it resolves to the date, in an intercalation
+     * month if the index is one.
+     */
+    @Override
+    public KoreanLunarDate resolveDate(Map<TemporalField, Long> fieldValues, ResolverStyle resolverStyle) {
+        Long prolepticMonth = fieldValues.remove(ChronoField.PROLEPTIC_MONTH);
+        if (prolepticMonth != null) {
+            int monthIndex = range(ChronoField.PROLEPTIC_MONTH).checkValidIntValue(prolepticMonth,
+                    ChronoField.PROLEPTIC_MONTH);
+            KoreanLunarDate monthStart = KoreanLunarDate.ofMonthIndex(monthIndex, 1);
+            checkConflict(fieldValues, ChronoField.YEAR, monthStart.getLong(ChronoField.YEAR));
+            checkConflict(fieldValues, ChronoField.MONTH_OF_YEAR, monthStart.getLong(ChronoField.MONTH_OF_YEAR));
+
+            Long dayOfMonth = fieldValues.remove(ChronoField.DAY_OF_MONTH);
+            if (dayOfMonth != null) {
+                if (resolverStyle == ResolverStyle.LENIENT) {
+                    return monthStart.plusDays(dayOfMonth - 1);
+                }
+                int day = range(ChronoField.DAY_OF_MONTH).checkValidIntValue(dayOfMonth, ChronoField.DAY_OF_MONTH);
+                if (resolverStyle == ResolverStyle.STRICT && day > monthStart.lengthOfMonth()) {
+                    throw new DateTimeException("Invalid date : day " + day + " of a " + monthStart.lengthOfMonth()
+                            + " day month");
+                }
+                return KoreanLunarDate.ofMonthIndex(monthIndex, day);
+            }
+            fieldValues.put(ChronoField.YEAR, monthStart.getLong(ChronoField.YEAR));
+            fieldValues.put(ChronoField.MONTH_OF_YEAR, monthStart.getLong(ChronoField.MONTH_OF_YEAR));
+        }
+        return (KoreanLunarDate) super.resolveDate(fieldValues, resolverStyle);
+    }
+
+    private static void checkConflict(Map<TemporalField, Long> fieldValues, ChronoField field, long value) {
+        Long current = fieldValues.remove(field);
+        if (current != null && current != value) {
+            throw new DateTimeException("Conflict found : " + field + " " + current + " differs from " + field + " "
+                    + value);
+        }
+    }
+
+    @Override
+    public ValueRange range(ChronoField field) {
+        switch (field) {
+        case YEAR:
+        case YEAR_OF_ERA:
+            return ValueRange.of(KoreanLunarCalendar.getLunarMinYear(), KoreanLunarCalendar.getLunarMaxYear());
+        case ERA:
+            return ValueRange.of(IsoEra.CE.getValue(), IsoEra.CE.getValue());
+        case MONTH_OF_YEAR:
+            return ValueRange.of(1, 12);
+        case PROLEPTIC_MONTH:
+            return ValueRange.of(0, KoreanLunarCalendar.getLunarMonthCount() - 1);
+        case DAY_OF_MONTH:
+            return ValueRange.of(1, 29, 30);
+        case DAY_OF_YEAR:
+            return ValueRange.of(1, 353, 385);
+        case ALIGNED_WEEK_OF_MONTH:
+            return ValueRange.of(1, 5);
+        case ALIGNED_WEEK_OF_YEAR:
+            return ValueRange.of(1, 51, 55);
+        case EPOCH_DAY:
+            return ValueRange.of(KoreanLunarCalendar.getEpochDay(1),
+                    KoreanLunarCalendar.getEpochDay(KoreanLunarCalendar.getMaxAbsDays()));
+        default:
+            return field.range();
+        }
+    }
+}
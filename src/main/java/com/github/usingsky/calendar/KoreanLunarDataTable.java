@@ -0,0 +1,657 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Lunar year table of the conversion engine, with an optional precomputed day index, in a versioned binary format.
+ * <p>
+ * The engine uses the built-in 1000 ~ 2050 table unless the {@code com.github.usingsky.calendar.dataFile} system
+ * property names a data file, which is memory-mapped read-only so that several JVMs on one host share its pages,
+ * or the {@code com.github.usingsky.calendar.dataResource} property names a class path resource. Every range
+ * limit (first and last year, first and last lunar and solar date) is derived from the loaded table. When the named
+ * table cannot be loaded the engine keeps the built-in table and {@link #getLoadError()} returns the failure.
+ * <p>
+ * File layout, big-endian 4 byte ints :
+ * 
+ * <pre>
+ * magic "KLCD", version, base year, year count, solar lunar day diff, day index length, CRC32 of the rest
+ * year data [year count]   same bit layout as the built-in table
+ * day index [length]       packed lunar date ({@link PackedDate}) of every absolute day, or no entry
+ * </pre>
+ * 
+ * The solar lunar day diff is the number of days between solar base-01-01 and lunar base-01-01.
+ */
+public final class KoreanLunarDataTable {
+
+    /**
+     * System property with the path of a data file to memory-map at startup.
+     */
+    public static final String FILE_PROPERTY = "com.github.usingsky.calendar.dataFile";
+
+    /**
+     * System property with the name of a class path resource to load at startup, used when no file is set.
+     */
+    public static final String RESOURCE_PROPERTY = "com.github.usingsky.calendar.dataResource";
+
+    /**
+     * Class path resource, relative to this class, of the precomputed table embedded at build time by the
+     * {@code precomputed-table} Maven profile. The dense table reads its day index instead of building it.
+     */
+    public static final String EMBEDDED_RESOURCE = "korean-lunar-data.bin";
+
+    /**
+     * "KLCD"
+     */
+    public static final int MAGIC = 0x4B4C4344;
+
+    /**
+     * Format version written. Version 2 extends the checksum of version 1 from the year data to the day index,
+     * version 1 files are still read when they have no day index.
+     */
+    public static final int VERSION = 2;
+
+    private static final int HEADER_LENGTH = 28;
+
+    private static final int[] SOLAR_DAYS = { 31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31 };
+
+    private final int baseYear;
+    private final int solarLunarDayDiff;
+    private final int[] yearData;
+    // null when the engine has to build it
+    private final IntBuffer dayIndex;
+
+    private final int maxAbsDays;
+    private final int lunarMaxDate;
+
+    private static volatile IllegalStateException loadError;
+
+    /**
+     * 
+     * @param baseYear
+     *            first lunar and solar year of the table
+     * @param solarLunarDayDiff
+     *            days between solar base-01-01 and lunar base-01-01
+     * @param yearData
+     *            one entry per year, in the bit layout of the built-in table
+     */
+    public KoreanLunarDataTable(int baseYear, int solarLunarDayDiff, int[] yearData) {
+        this(baseYear, solarLunarDayDiff, yearData.clone(), null);
+    }
+
+    private KoreanLunarDataTable(int baseYear, int solarLunarDayDiff, int[] yearData, IntBuffer dayIndex) {
+        if (baseYear < 1 || yearData.length < 1 || baseYear > 9999 - yearData.length + 1) {
+            throw new IllegalArgumentException("years " + baseYear + " ~ " + (baseYear + yearData.length - 1)
+                    + " are outside 1 ~ 9999");
+        }
+        if (solarLunarDayDiff < 0 || solarLunarDayDiff >= getSolarDays(yearData[0])) {
+            throw new IllegalArgumentException("solarLunarDayDiff(" + solarLunarDayDiff + ") is outside the base year");
+        }
+
+        long lunarDays = 0;
+        long solarDays = 0;
+        for (int i = 0; i < yearData.length; i++) {
+            int intercalationMonth = getIntercalationMonth(yearData[i]);
+            // 29 days per month, plus one for each 30 day month
+            int days = 29 * 12 + Integer.bitCount(yearData[i] & 0x0FFF);
+            if (intercalationMonth > 12) {
+                throw new IllegalArgumentException("year " + (baseYear + i) + " has intercalation month " + intercalationMonth);
+            }
+            if (intercalationMonth > 0) {
+                days += getMonthDays(yearData[i], intercalationMonth, true);
+            }
+            if (days != getYearDays(yearData[i])) {
+                throw new IllegalArgumentException("year " + (baseYear + i) + " has " + getYearDays(yearData[i])
+                        + " days but its months add up to " + days);
+            }
+            lunarDays += days;
+            solarDays += getSolarDays(yearData[i]);
+        }
+        // the solar range ends on the last 12-31, which the lunar years have to cover
+        if (solarDays - solarLunarDayDiff > lunarDays) {
+            throw new IllegalArgumentException("lunar years end " + (solarDays - solarLunarDayDiff - lunarDays)
+                    + " days before the last solar year");
+        }
+
+        this.baseYear = baseYear;
+        this.solarLunarDayDiff = solarLunarDayDiff;
+        this.yearData = yearData;
+        this.maxAbsDays = (int) (solarDays - solarLunarDayDiff);
+        this.lunarMaxDate = findLunarDate(maxAbsDays);
+
+        if (dayIndex != null) {
+            if (dayIndex.capacity() != maxAbsDays) {
+                throw new IllegalArgumentException("day index has " + dayIndex.capacity() + " entries instead of "
+                        + maxAbsDays);
+            }
+            if (dayIndex.get(0) != PackedDate.encodeLunar(baseYear, 1, 1, false)
+                    || toDateValue(dayIndex.get(maxAbsDays - 1)) != lunarMaxDate) {
+                throw new IllegalArgumentException("day index does not match the year data");
+            }
+        }
+        this.dayIndex = dayIndex;
+    }
+
+    /**
+     * Memory-maps a data file read-only. The day index, if any, stays in the mapping and is not copied.
+     * 
+     * @param file
+     * @return
+     * @throws IOException
+     *             if the file cannot be read or is not a valid data file
+     */
+    public static KoreanLunarDataTable map(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            // the mapping stays valid after the channel is closed
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } finally {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads a data file from a stream, such as a class path resource. The stream is read up to the end of the
+     * table, into a single array sized from the header.
+     * 
+     * @param in
+     * @return
+     * @throws IOException
+     *             if the stream cannot be read or is not a valid data file
+     */
+    public static KoreanLunarDataTable read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte[] header = new byte[HEADER_LENGTH];
+        data.readFully(header);
+        ByteBuffer headerBuffer = ByteBuffer.wrap(header);
+        if (headerBuffer.getInt(0) != MAGIC) {
+            throw new IOException("not a lunar data file");
+        }
+        long length = HEADER_LENGTH + 4L * headerBuffer.getInt(12) + 4L * headerBuffer.getInt(20);
+        if (length < HEADER_LENGTH || length > Integer.MAX_VALUE) {
+            throw new IOException("invalid lunar data length " + length);
+        }
+
+        byte[] bytes = new byte[(int) length];
+        System.arraycopy(header, 0, bytes, 0, HEADER_LENGTH);
+        data.readFully(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        if (data.read() >= 0) {
+            throw new IOException("lunar data file is truncated or has trailing bytes");
+        }
+        return parse(ByteBuffer.wrap(bytes));
+    }
+
+    private static KoreanLunarDataTable parse(ByteBuffer data) throws IOException {
+        data.order(ByteOrder.BIG_ENDIAN);
+        if (data.remaining() < HEADER_LENGTH || data.getInt(0) != MAGIC) {
+            throw new IOException("not a lunar data file");
+        }
+        int version = data.getInt(4);
+        if (version != 1 && version != VERSION) {
+            throw new IOException("unsupported lunar data version " + version);
+        }
+
+        int baseYear = data.getInt(8);
+        int yearCount = data.getInt(12);
+        int solarLunarDayDiff = data.getInt(16);
+        int dayIndexLength = data.getInt(20);
+        int checksum = data.getInt(24);
+        if (yearCount < 1 || dayIndexLength < 0
+                || data.remaining() != HEADER_LENGTH + 4L * yearCount + 4L * dayIndexLength) {
+            throw new IOException("lunar data file is truncated or has trailing bytes");
+        }
+        if (version == 1 && dayIndexLength > 0) {
+            throw new IOException("version 1 day index is not checksummed, write the table again");
+        }
+
+        // the checksum covers the year data and the day index
+        ((Buffer) data).position(HEADER_LENGTH);
+        CRC32 crc = new CRC32();
+        crc.update(data.duplicate());
+        if ((int) crc.getValue() != checksum) {
+            throw new IOException("lunar data checksum mismatch");
+        }
+
+        int[] yearData = new int[yearCount];
+        data.asIntBuffer().get(yearData);
+
+        IntBuffer dayIndex = null;
+        if (dayIndexLength > 0) {
+            ((Buffer) data).position(HEADER_LENGTH + 4 * yearCount);
+            dayIndex = data.slice().asIntBuffer().asReadOnlyBuffer();
+        }
+
+        try {
+            return new KoreanLunarDataTable(baseYear, solarLunarDayDiff, yearData, dayIndex);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("invalid lunar data : " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the table named by {@link #FILE_PROPERTY} or {@link #RESOURCE_PROPERTY}. A failure is kept for
+     * {@link #getLoadError()} rather than thrown, since it would fail the class initialization of the engine.
+     * 
+     * @return the table, or null if neither property is set or the named table cannot be loaded
+     */
+    static KoreanLunarDataTable loadConfigured() {
+        String file = System.getProperty(FILE_PROPERTY);
+        String resource = System.getProperty(RESOURCE_PROPERTY);
+        try {
+            if (file != null && !file.isEmpty()) {
+                return map(Paths.get(file));
+            }
+            if (resource != null && !resource.isEmpty()) {
+                InputStream in = KoreanLunarDataTable.class.getResourceAsStream(resource);
+                if (in == null) {
+                    throw new IOException("resource not found");
+                }
+                try {
+                    return read(in);
+                } finally {
+                    in.close();
+                }
+            }
+        } catch (IOException e) {
+            loadError = new IllegalStateException("cannot load lunar data "
+                    + (file != null && !file.isEmpty() ? file : resource) + " : " + e.getMessage(), e);
+        }
+        return null;
+    }
+
+    /**
+     * Failure to load the table named by {@link #FILE_PROPERTY} or {@link #RESOURCE_PROPERTY}, in which case the
+     * engine uses the built-in table.
+     * 
+     * @return the failure, or null if the named table was loaded or none is named
+     */
+    public static IllegalStateException getLoadError() {
+        // the engine loads the table during its class initialization
+        KoreanLunarCalendar.getLunarMinYear();
+        return loadError;
+    }
+
+    /**
+     * Day index of the embedded precomputed table, if the jar has one built from the same year data.
+     * 
+     * @param table
+     *            the table in use
+     * @return the day index, or null
+     */
+    static IntBuffer loadEmbeddedDayIndex(KoreanLunarDataTable table) {
+        InputStream in = KoreanLunarDataTable.class.getResourceAsStream(EMBEDDED_RESOURCE);
+        if (in == null) {
+            return null;
+        }
+        try {
+            try {
+                KoreanLunarDataTable embedded = read(in);
+                return embedded.equals(table) ? embedded.getDayIndex() : null;
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            // a damaged resource only costs building the table
+            return null;
+        }
+    }
+
+    /**
+     * Writes the table in use to a file, with the day index unless {@code --no-day-index} follows the path.
+     * The {@code precomputed-table} Maven profile runs it to embed {@link #EMBEDDED_RESOURCE} in the jar.
+     * 
+     * @param args
+     *            the file path, optionally followed by {@code --no-day-index}
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1 || args.length > 2 || (args.length == 2 && !args[1].equals("--no-day-index"))) {
+            System.err.println("usage : KoreanLunarDataTable <file> [--no-day-index]");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        long size = export(file, args.length == 1);
+        System.out.println(current() + " -> " + file + " (" + size + " bytes)");
+    }
+
+    /**
+     * Writes the table in use to a file, creating its parent directories.
+     * 
+     * @param file
+     * @param withDayIndex
+     * @return the file size in bytes
+     * @throws IOException
+     */
+    static long export(Path file, boolean withDayIndex) throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        current().write(file, withDayIndex);
+        return Files.size(file);
+    }
+
+    /**
+     * The table the conversion engine is running on.
+     * 
+     * @return
+     */
+    public static KoreanLunarDataTable current() {
+        int minYear = KoreanLunarCalendar.getLunarMinYear();
+        int[] yearData = new int[KoreanLunarCalendar.getLunarMaxYear() - minYear + 1];
+        for (int i = 0; i < yearData.length; i++) {
+            yearData[i] = KoreanLunarCalendar.getLunarData(minYear + i);
+        }
+        return new KoreanLunarDataTable(minYear, KoreanLunarCalendar.getSolarLunarDayDiff(), yearData, null);
+    }
+
+    /**
+     * Writes the table in the binary format.
+     * 
+     * @param file
+     * @param withDayIndex
+     *            whether to append the precomputed day index (4 bytes per day)
+     * @throws IOException
+     */
+    public void write(Path file, boolean withDayIndex) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        try {
+            write(out, withDayIndex);
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Writes the table in the binary format.
+     * 
+     * @param out
+     * @param withDayIndex
+     *            whether to append the precomputed day index (4 bytes per day)
+     * @throws IOException
+     */
+    public void write(OutputStream out, boolean withDayIndex) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, 65536));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(baseYear);
+        data.writeInt(yearData.length);
+        data.writeInt(solarLunarDayDiff);
+        int[] index = withDayIndex ? buildDayIndex() : new int[0];
+        data.writeInt(index.length);
+        data.writeInt(checksum(yearData, index));
+        for (int value : yearData) {
+            data.writeInt(value);
+        }
+        for (int packed : index) {
+            data.writeInt(packed);
+        }
+        data.flush();
+    }
+
+    /**
+     * Packed lunar date of every absolute day (index : absolute day - 1), the same values as the loaded day index.
+     * 
+     * @return
+     */
+    int[] buildDayIndex() {
+        int[] index = new int[maxAbsDays];
+        int absDays = 0;
+        for (int i = 0; i < yearData.length && absDays < maxAbsDays; i++) {
+            int intercalationMonth = getIntercalationMonth(yearData[i]);
+            for (int month = 1; month <= 12; month++) {
+                for (int leap = 0; leap < (month == intercalationMonth ? 2 : 1); leap++) {
+                    int packed = PackedDate.encodeLunar(baseYear + i, month, 0, leap == 1);
+                    int days = getMonthDays(yearData[i], month, leap == 1);
+                    for (int day = 1; day <= days && absDays < maxAbsDays; day++) {
+                        index[absDays++] = packed + day;
+                    }
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Days before each lunar year, index : year - base year, with the total at the end.
+     * 
+     * @return
+     */
+    int[] buildLunarDaysBeforeYear() {
+        int[] daysBeforeYear = new int[yearData.length + 1];
+        for (int i = 0; i < yearData.length; i++) {
+            daysBeforeYear[i + 1] = daysBeforeYear[i] + getYearDays(yearData[i]);
+        }
+        return daysBeforeYear;
+    }
+
+    /**
+     * Days before each solar year, index : year - base year, with the total at the end.
+     * 
+     * @return
+     */
+    int[] buildSolarDaysBeforeYear() {
+        int[] daysBeforeYear = new int[yearData.length + 1];
+        for (int i = 0; i < yearData.length; i++) {
+            daysBeforeYear[i + 1] = daysBeforeYear[i] + getSolarDays(yearData[i]);
+        }
+        return daysBeforeYear;
+    }
+
+    private int findLunarDate(int absDays) {
+        int remaining = absDays;
+        for (int i = 0; i < yearData.length; i++) {
+            if (remaining > getYearDays(yearData[i])) {
+                remaining -= getYearDays(yearData[i]);
+                continue;
+            }
+            int intercalationMonth = getIntercalationMonth(yearData[i]);
+            for (int month = 1; month <= 12; month++) {
+                for (int leap = 0; leap < (month == intercalationMonth ? 2 : 1); leap++) {
+                    int days = getMonthDays(yearData[i], month, leap == 1);
+                    if (remaining <= days) {
+                        return (baseYear + i) * 10000 + month * 100 + remaining;
+                    }
+                    remaining -= days;
+                }
+            }
+        }
+        throw new IllegalStateException();
+    }
+
+    private static int checksum(int[] yearData, int[] dayIndex) {
+        CRC32 crc = new CRC32();
+        for (int[] values : new int[][] { yearData, dayIndex }) {
+            ByteBuffer bytes = ByteBuffer.allocate(values.length * 4);
+            bytes.asIntBuffer().put(values);
+            crc.update(bytes.array(), 0, bytes.capacity());
+        }
+        return (int) crc.getValue();
+    }
+
+    private static int toDateValue(int packed) {
+        return PackedDate.getLunarYear(packed) * 10000 + PackedDate.getLunarMonth(packed) * 100
+                + PackedDate.getLunarDay(packed);
+    }
+
+    private static int getIntercalationMonth(int lunarData) {
+        return (lunarData >> 12) & 0x000F;
+    }
+
+    private static int getYearDays(int lunarData) {
+        return (lunarData >> 17) & 0x01FF;
+    }
+
+    private static int getMonthDays(int lunarData, int month, boolean isIntercalation) {
+        int bit = isIntercalation ? (lunarData >> 16) : (lunarData >> (12 - month));
+        return (bit & 0x01) > 0 ? 30 : 29;
+    }
+
+    private static boolean isSolarLeapYear(int lunarData) {
+        return ((lunarData >> 30) & 0x01) > 0;
+    }
+
+    private static int getSolarDays(int lunarData) {
+        return isSolarLeapYear(lunarData) ? 366 : 365;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getBaseYear() {
+        return baseYear;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getMaxYear() {
+        return baseYear + yearData.length - 1;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getSolarLunarDayDiff() {
+        return solarLunarDayDiff;
+    }
+
+    /**
+     * 
+     * @param year
+     * @return the entry of the year, in the bit layout of the built-in table
+     */
+    public int getYearData(int year) {
+        if (year < baseYear || year > getMaxYear()) {
+            throw new IllegalArgumentException("year(" + year + ") is outside " + baseYear + " ~ " + getMaxYear());
+        }
+        return yearData[year - baseYear];
+    }
+
+    int[] getYearData() {
+        return yearData;
+    }
+
+    /**
+     * 
+     * @return whether the table was loaded with a precomputed day index
+     */
+    public boolean hasDayIndex() {
+        return dayIndex != null;
+    }
+
+    IntBuffer getDayIndex() {
+        return dayIndex == null ? null : dayIndex.duplicate();
+    }
+
+    /**
+     * 
+     * @return number of supported days, from lunar base-01-01 to solar 12-31 of the last year
+     */
+    public int getDayCount() {
+        return maxAbsDays;
+    }
+
+    /**
+     * 
+     * @return first lunar date as yyyyMMdd
+     */
+    public int getLunarMinDate() {
+        return baseYear * 10000 + 101;
+    }
+
+    /**
+     * 
+     * @return last lunar date as yyyyMMdd
+     */
+    public int getLunarMaxDate() {
+        return lunarMaxDate;
+    }
+
+    /**
+     * 
+     * @return first solar date as yyyyMMdd
+     */
+    public int getSolarMinDate() {
+        boolean isLeapYear = isSolarLeapYear(yearData[0]);
+        int month = 1;
+        int day = solarLunarDayDiff + 1;
+        while (day > SOLAR_DAYS[month - 1] + (month == 2 && isLeapYear ? 1 : 0)) {
+            day -= SOLAR_DAYS[month - 1] + (month == 2 && isLeapYear ? 1 : 0);
+            month++;
+        }
+        return baseYear * 10000 + month * 100 + day;
+    }
+
+    /**
+     * 
+     * @return last solar date as yyyyMMdd
+     */
+    public int getSolarMaxDate() {
+        return getMaxYear() * 10000 + 1231;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof KoreanLunarDataTable)) {
+            return false;
+        }
+        KoreanLunarDataTable other = (KoreanLunarDataTable) obj;
+        return baseYear == other.baseYear && solarLunarDayDiff == other.solarLunarDayDiff
+                && Arrays.equals(yearData, other.yearData);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * baseYear + solarLunarDayDiff) + Arrays.hashCode(yearData);
+    }
+
+    @Override
+    public String toString() {
+        return "KoreanLunarDataTable[" + getLunarMinDate() + " ~ " + getLunarMaxDate() + (hasDayIndex() ? ", day index]" : "]");
+    }
+}
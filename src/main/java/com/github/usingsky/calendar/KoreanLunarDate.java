@@ -0,0 +1,515 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.chrono.ChronoLocalDate;
+import java.time.chrono.ChronoPeriod;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.Temporal;
+import java.time.temporal.TemporalAccessor;
+import java.time.temporal.TemporalAdjuster;
+import java.time.temporal.TemporalAmount;
+import java.time.temporal.TemporalField;
+import java.time.temporal.TemporalUnit;
+import java.time.temporal.UnsupportedTemporalTypeException;
+import java.time.temporal.ValueRange;
+
+/**
+ * A date in the {@link KoreanLunarChronology}. Immutable and thread safe.
+ * <p>
+ * The date is stored with its absolute day, so {@code LocalDate.from(lunarDate)} and
+ * {@code KoreanLunarDate.from(localDate)} are constant time. Adding months walks the
+ * lunar months in order, intercalation months included.
+ */
+public final class KoreanLunarDate implements ChronoLocalDate {
+
+    private final int absDays;
+    private final int year;
+    private final int month;
+    private final int day;
+    private final boolean isIntercalation;
+
+    private KoreanLunarDate(int absDays, int year, int month, int day, boolean isIntercalation) {
+        this.absDays = absDays;
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.isIntercalation = isIntercalation;
+    }
+
+    /**
+     * 
+     * @param year
+     * @param month
+     * @param dayOfMonth
+     * @return
+     * @throws DateTimeException if the date is not valid
+     */
+    public static KoreanLunarDate of(int year, int month, int dayOfMonth) {
+        return of(year, month, dayOfMonth, false);
+    }
+
+    /**
+     * 
+     * @param year
+     * @param month
+     * @param dayOfMonth
+     * @param isIntercalation
+     * @return
+     * @throws DateTimeException if the date is not valid or the month has no intercalation month
+     */
+    public static KoreanLunarDate of(int year, int month, int dayOfMonth, boolean isIntercalation) {
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, year, month, dayOfMonth)
+                || (isIntercalation && KoreanLunarCalendar.getLunarIntercalationMonth(KoreanLunarCalendar.getLunarData(year)) != month)) {
+            throw new DateTimeException("Invalid Korean lunar date: " + year + "-" + month + "-" + dayOfMonth
+                    + (isIntercalation ? " Intercalation" : ""));
+        }
+        return new KoreanLunarDate(KoreanLunarCalendar.getLunarAbsDays(year, month, dayOfMonth, isIntercalation),
+                year, month, dayOfMonth, isIntercalation);
+    }
+
+    /**
+     * 
+     * @param epochDay
+     * @return
+     * @throws DateTimeException if the epoch day is out of the supported range
+     */
+    public static KoreanLunarDate ofEpochDay(long epochDay) {
+        int absDays = KoreanLunarCalendar.getAbsDaysByEpochDay(epochDay);
+        if (absDays == 0) {
+            throw new DateTimeException("Epoch day out of Korean lunar calendar range: " + epochDay);
+        }
+        return ofAbsDays(absDays);
+    }
+
+    /**
+     * 
+     * @param temporal
+     * @return
+     * @throws DateTimeException if the temporal has no epoch day or it is out of range
+     */
+    public static KoreanLunarDate from(TemporalAccessor temporal) {
+        if (temporal instanceof KoreanLunarDate) {
+            return (KoreanLunarDate) temporal;
+        }
+        return ofEpochDay(temporal.getLong(ChronoField.EPOCH_DAY));
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public static KoreanLunarDate now() {
+        return now(Clock.systemDefaultZone());
+    }
+
+    /**
+     * 
+     * @param clock
+     * @return
+     */
+    public static KoreanLunarDate now(Clock clock) {
+        return ofEpochDay(LocalDate.now(clock).toEpochDay());
+    }
+
+    static KoreanLunarDate ofAbsDays(int absDays) {
+        int packed = KoreanLunarCalendar.getPackedLunarDateByAbsDays(absDays);
+        return new KoreanLunarDate(absDays, PackedDate.getLunarYear(packed), PackedDate.getLunarMonth(packed),
+                PackedDate.getLunarDay(packed), PackedDate.isIntercalation(packed));
+    }
+
+    static KoreanLunarDate ofMonthIndex(int monthIndex, int dayOfMonth) {
+        if (monthIndex < 0 || monthIndex >= KoreanLunarCalendar.getLunarMonthCount()) {
+            throw new DateTimeException("Month out of Korean lunar calendar range");
+        }
+        int packed = KoreanLunarCalendar.getLunarMonthStartPacked(monthIndex);
+        int year = PackedDate.getLunarYear(packed);
+        int month = PackedDate.getLunarMonth(packed);
+        boolean isIntercalation = PackedDate.isIntercalation(packed);
+        int day = Math.min(dayOfMonth, KoreanLunarCalendar.getLunarDays(year, month, isIntercalation));
+
+        int absDays = KoreanLunarCalendar.getLunarMonthStartAbsDays(monthIndex) + day - 1;
+        if (absDays > KoreanLunarCalendar.getMaxAbsDays()) {
+            throw new DateTimeException("Date out of Korean lunar calendar range");
+        }
+        return new KoreanLunarDate(absDays, year, month, day, isIntercalation);
+    }
+
+    private KoreanLunarDate ofAbsDaysChecked(long absDays) {
+        if (absDays < 1 || absDays > KoreanLunarCalendar.getMaxAbsDays()) {
+            throw new DateTimeException("Date out of Korean lunar calendar range");
+        }
+        return absDays == this.absDays ? this : ofAbsDays((int) absDays);
+    }
+
+    private int getMonthIndex() {
+        return KoreanLunarCalendar.getLunarMonthIndex(year, month, isIntercalation);
+    }
+
+    private int getYearStartAbsDays() {
+        return KoreanLunarCalendar.getLunarAbsDays(year, 1, 1, false);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public boolean isIntercalation() {
+        return isIntercalation;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public LunarDate toLunarDate() {
+        return new LunarDate(year, month, day, isIntercalation);
+    }
+
+    @Override
+    public KoreanLunarChronology getChronology() {
+        return KoreanLunarChronology.INSTANCE;
+    }
+
+    @Override
+    public int lengthOfMonth() {
+        return KoreanLunarCalendar.getLunarDays(year, month, isIntercalation);
+    }
+
+    @Override
+    public int lengthOfYear() {
+        return KoreanLunarCalendar.getLunarDays(year);
+    }
+
+    @Override
+    public boolean isLeapYear() {
+        return getChronology().isLeapYear(year);
+    }
+
+    @Override
+    public long toEpochDay() {
+        return KoreanLunarCalendar.getEpochDay(absDays);
+    }
+
+    @Override
+    public ValueRange range(TemporalField field) {
+        if (field instanceof ChronoField) {
+            if (!isSupported(field)) {
+                throw new UnsupportedTemporalTypeException("Unsupported field: " + field);
+            }
+            switch ((ChronoField) field) {
+            case DAY_OF_MONTH:
+                return ValueRange.of(1, lengthOfMonth());
+            case DAY_OF_YEAR:
+                return ValueRange.of(1, lengthOfYear());
+            case ALIGNED_WEEK_OF_MONTH:
+                return ValueRange.of(1, (lengthOfMonth() + 6) / 7);
+            case ALIGNED_WEEK_OF_YEAR:
+                return ValueRange.of(1, (lengthOfYear() + 6) / 7);
+            default:
+                return getChronology().range((ChronoField) field);
+            }
+        }
+        return field.rangeRefinedBy(this);
+    }
+
+    @Override
+    public long getLong(TemporalField field) {
+        if (field instanceof ChronoField) {
+            switch ((ChronoField) field) {
+            case DAY_OF_WEEK:
+                return Math.floorMod(toEpochDay() + 3, 7L) + 1;
+            case ALIGNED_DAY_OF_WEEK_IN_MONTH:
+                return (day - 1) % 7 + 1;
+            case ALIGNED_DAY_OF_WEEK_IN_YEAR:
+                return (getDayOfYear() - 1) % 7 + 1;
+            case DAY_OF_MONTH:
+                return day;
+            case DAY_OF_YEAR:
+                return getDayOfYear();
+            case EPOCH_DAY:
+                return toEpochDay();
+            case ALIGNED_WEEK_OF_MONTH:
+                return (day - 1) / 7 + 1;
+            case ALIGNED_WEEK_OF_YEAR:
+                return (getDayOfYear() - 1) / 7 + 1;
+            case MONTH_OF_YEAR:
+                return month;
+            case PROLEPTIC_MONTH:
+                return getMonthIndex();
+            case YEAR_OF_ERA:
+            case YEAR:
+                return year;
+            case ERA:
+                return 1;
+            default:
+                throw new UnsupportedTemporalTypeException("Unsupported field: " + field);
+            }
+        }
+        return field.getFrom(this);
+    }
+
+    private int getDayOfYear() {
+        return absDays - getYearStartAbsDays() + 1;
+    }
+
+    @Override
+    public KoreanLunarDate with(TemporalField field, long newValue) {
+        if (field instanceof ChronoField) {
+            ChronoField chronoField = (ChronoField) field;
+            range(chronoField).checkValidValue(newValue, chronoField);
+            int value = (int) newValue;
+            switch (chronoField) {
+            case DAY_OF_WEEK:
+                return plusDays(newValue - getLong(ChronoField.DAY_OF_WEEK));
+            case ALIGNED_DAY_OF_WEEK_IN_MONTH:
+                return plusDays(newValue - getLong(ChronoField.ALIGNED_DAY_OF_WEEK_IN_MONTH));
+            case ALIGNED_DAY_OF_WEEK_IN_YEAR:
+                return plusDays(newValue - getLong(ChronoField.ALIGNED_DAY_OF_WEEK_IN_YEAR));
+            case DAY_OF_MONTH:
+                return ofAbsDaysChecked(absDays + value - day);
+            case DAY_OF_YEAR:
+                return withDayOfYear(value);
+            case EPOCH_DAY:
+                return ofEpochDay(newValue);
+            case ALIGNED_WEEK_OF_MONTH:
+                return plusDays((newValue - getLong(ChronoField.ALIGNED_WEEK_OF_MONTH)) * 7);
+            case ALIGNED_WEEK_OF_YEAR:
+                return plusDays((newValue - getLong(ChronoField.ALIGNED_WEEK_OF_YEAR)) * 7);
+            case MONTH_OF_YEAR:
+                return resolveOf(year, value, false);
+            case PROLEPTIC_MONTH:
+                return plusMonths(newValue - getMonthIndex());
+            case YEAR_OF_ERA:
+            case YEAR:
+                return resolveOf(value, month, isIntercalation);
+            case ERA:
+                return this;
+            default:
+                throw new UnsupportedTemporalTypeException("Unsupported field: " + field);
+            }
+        }
+        return field.adjustInto(this, newValue);
+    }
+
+    KoreanLunarDate withDayOfYear(int dayOfYear) {
+        if (dayOfYear < 1 || dayOfYear > lengthOfYear()) {
+            throw new DateTimeException("Invalid day of year " + dayOfYear + " for lunar year " + year);
+        }
+        return ofAbsDaysChecked(getYearStartAbsDays() + dayOfYear - 1L);
+    }
+
+    /**
+     * Keeps the intercalation flag only if the target year has that intercalation month,
+     * and clamps the day to the length of the resolved month.
+     */
+    private KoreanLunarDate resolveOf(int year, int month, boolean isIntercalation) {
+        if (year < KoreanLunarCalendar.getLunarMinYear() || year > KoreanLunarCalendar.getLunarMaxYear()) {
+            throw new DateTimeException("Year out of Korean lunar calendar range: " + year);
+        }
+        boolean intercalation = isIntercalation
+                && KoreanLunarCalendar.getLunarIntercalationMonth(KoreanLunarCalendar.getLunarData(year)) == month;
+        return ofMonthIndex(KoreanLunarCalendar.getLunarMonthIndex(year, month, intercalation), day);
+    }
+
+    @Override
+    public KoreanLunarDate plus(long amountToAdd, TemporalUnit unit) {
+        if (unit instanceof ChronoUnit) {
+            switch ((ChronoUnit) unit) {
+            case DAYS:
+                return plusDays(amountToAdd);
+            case WEEKS:
+                return plusDays(Math.multiplyExact(amountToAdd, 7));
+            case MONTHS:
+                return plusMonths(amountToAdd);
+            case YEARS:
+                return plusYears(amountToAdd);
+            case DECADES:
+                return plusYears(Math.multiplyExact(amountToAdd, 10));
+            case CENTURIES:
+                return plusYears(Math.multiplyExact(amountToAdd, 100));
+            case MILLENNIA:
+                return plusYears(Math.multiplyExact(amountToAdd, 1000));
+            default:
+                throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+            }
+        }
+        return unit.addTo(this, amountToAdd);
+    }
+
+    @Override
+    public KoreanLunarDate plus(TemporalAmount amount) {
+        return (KoreanLunarDate) ChronoLocalDate.super.plus(amount);
+    }
+
+    @Override
+    public KoreanLunarDate minus(long amountToSubtract, TemporalUnit unit) {
+        return amountToSubtract == Long.MIN_VALUE ? plus(Long.MAX_VALUE, unit).plus(1, unit) : plus(-amountToSubtract, unit);
+    }
+
+    @Override
+    public KoreanLunarDate minus(TemporalAmount amount) {
+        return (KoreanLunarDate) ChronoLocalDate.super.minus(amount);
+    }
+
+    @Override
+    public KoreanLunarDate with(TemporalAdjuster adjuster) {
+        return (KoreanLunarDate) ChronoLocalDate.super.with(adjuster);
+    }
+
+    /**
+     * 
+     * @param days
+     * @return
+     */
+    public KoreanLunarDate plusDays(long days) {
+        return days == 0 ? this : ofAbsDaysChecked(absDays + days);
+    }
+
+    /**
+     * Moves by lunar months in calendar order, an intercalation month counts as a month.
+     * The day is clamped to the length of the resulting month.
+     *
+     * @param months
+     * @return
+     */
+    public KoreanLunarDate plusMonths(long months) {
+        if (months == 0) {
+            return this;
+        }
+        long monthIndex = getMonthIndex() + months;
+        if (monthIndex < 0 || monthIndex >= KoreanLunarCalendar.getLunarMonthCount()) {
+            throw new DateTimeException("Month out of Korean lunar calendar range");
+        }
+        return ofMonthIndex((int) monthIndex, day);
+    }
+
+    /**
+     * Moves to the same month and day of another lunar year. An intercalation month falls back
+     * to the regular month when the target year has none, and the day is clamped to the month length.
+     *
+     * @param years
+     * @return
+     */
+    public KoreanLunarDate plusYears(long years) {
+        if (years == 0) {
+            return this;
+        }
+        long newYear = year + years;
+        if (newYear < KoreanLunarCalendar.getLunarMinYear() || newYear > KoreanLunarCalendar.getLunarMaxYear()) {
+            throw new DateTimeException("Year out of Korean lunar calendar range: " + newYear);
+        }
+        return resolveOf((int) newYear, month, isIntercalation);
+    }
+
+    @Override
+    public long until(Temporal endExclusive, TemporalUnit unit) {
+        KoreanLunarDate end = from(endExclusive);
+        if (unit instanceof ChronoUnit) {
+            switch ((ChronoUnit) unit) {
+            case DAYS:
+                return end.absDays - absDays;
+            case WEEKS:
+                return (end.absDays - absDays) / 7;
+            case MONTHS:
+                return monthsUntil(end);
+            case YEARS:
+                return yearsUntil(end);
+            case DECADES:
+                return yearsUntil(end) / 10;
+            case CENTURIES:
+                return yearsUntil(end) / 100;
+            case MILLENNIA:
+                return yearsUntil(end) / 1000;
+            default:
+                throw new UnsupportedTemporalTypeException("Unsupported unit: " + unit);
+            }
+        }
+        return unit.between(this, end);
+    }
+
+    private long monthsUntil(KoreanLunarDate end) {
+        long packed1 = getMonthIndex() * 32L + day;
+        long packed2 = end.getMonthIndex() * 32L + end.day;
+        return (packed2 - packed1) / 32;
+    }
+
+    private long yearsUntil(KoreanLunarDate end) {
+        // position in year : month, then intercalation, then day
+        int position1 = (month * 2 + (isIntercalation ? 1 : 0)) * 32 + day;
+        int position2 = (end.month * 2 + (end.isIntercalation ? 1 : 0)) * 32 + end.day;
+        long years = end.year - year;
+        if (years > 0 && position2 < position1) {
+            years--;
+        } else if (years < 0 && position2 > position1) {
+            years++;
+        }
+        return years;
+    }
+
+    @Override
+    public ChronoPeriod until(ChronoLocalDate endDateExclusive) {
+        KoreanLunarDate end = from(endDateExclusive);
+        long years = yearsUntil(end);
+        KoreanLunarDate date = plusYears(years);
+        long months = date.monthsUntil(end);
+        date = date.plusMonths(months);
+        long days = end.absDays - date.absDays;
+        return getChronology().period(Math.toIntExact(years), Math.toIntExact(months), Math.toIntExact(days));
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public String getIsoFormat() {
+        return KoreanLunarFormatter.getIsoFormat(year, month, day, isIntercalation);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof KoreanLunarDate)) {
+            return false;
+        }
+        return absDays == ((KoreanLunarDate) obj).absDays;
+    }
+
+    @Override
+    public int hashCode() {
+        return getChronology().getId().hashCode() ^ absDays;
+    }
+
+    @Override
+    public String toString() {
+        return getChronology().getId() + " " + getIsoFormat();
+    }
+}
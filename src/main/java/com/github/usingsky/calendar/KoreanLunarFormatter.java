@@ -0,0 +1,525 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Allocation-free formatting of ISO dates and gapja (sexagenary) strings.
+ * <p>
+ * Every method writes into a caller supplied {@code char[]}, {@link StringBuilder}, {@link Appendable} or
+ * {@link ByteBuffer}. Digits are written by hand and the 60 cycle names are precomputed, so repeated
+ * formatting into a reused buffer does not allocate. ISO output is ASCII, gapja output is written to a
+ * {@code ByteBuffer} as UTF-8.
+ * <p>
+ * ISO output is written as given. Gapja output for a lunar date that {@link KoreanLunarValidator} does not
+ * accept (outside the supported range, or with an invalid month or day) is cycle 0 (gapja) for the year, month
+ * and day, as it always was for {@link KoreanLunarCalendar}.
+ */
+public final class KoreanLunarFormatter {
+
+    /**
+     * Maximum number of chars written by one ISO date call, for any year, month and day (11 chars each for
+     * {@code -2147483648}).
+     */
+    public static final int MAX_ISO_LENGTH = 49;
+
+    /**
+     * Maximum number of chars written by one gapja call.
+     */
+    public static final int MAX_GAPJA_LENGTH = 16;
+
+    /**
+     * Maximum number of bytes written to a {@code ByteBuffer} by one gapja call.
+     */
+    public static final int MAX_GAPJA_BYTES = 38;
+
+    private static final int GAPJA_CYCLE = 60;
+
+    private static final char[] KOREAN_CHEONGAN = { 0xac11, 0xc744, 0xbcd1, 0xc815, 0xbb34, 0xae30, 0xacbd, 0xc2e0, 0xc784, 0xacc4 };
+    private static final char[] KOREAN_GANJI = { 0xc790, 0xcd95, 0xc778, 0xbb18, 0xc9c4, 0xc0ac, 0xc624, 0xbbf8, 0xc2e0, 0xc720, 0xc220, 0xd574 };
+    private static final char[] KOREAN_GAPJA_UNIT = { 0xb144, 0xc6d4, 0xc77c };
+
+    private static final char[] CHINESE_CHEONGAN = { 0x7532, 0x4e59, 0x4e19, 0x4e01, 0x620a, 0x5df1, 0x5e9a, 0x8f9b, 0x58ec, 0x7678 };
+    private static final char[] CHINESE_GANJI = { 0x5b50, 0x4e11, 0x5bc5, 0x536f, 0x8fb0, 0x5df3, 0x5348, 0x672a, 0x7533, 0x9149, 0x620c, 0x4ea5 };
+    private static final char[] CHINESE_GAPJA_UNIT = { 0x5e74, 0x6708, 0x65e5 };
+
+    private static final char[] INTERCALATION_STR = { 0xc724, 0x958f };
+
+    private static final char[] ISO_INTERCALATION = " Intercalation".toCharArray();
+
+    private static final GapjaNames KOREAN = new GapjaNames(KOREAN_CHEONGAN, KOREAN_GANJI, KOREAN_GAPJA_UNIT,
+            INTERCALATION_STR[0]);
+    private static final GapjaNames CHINESE = new GapjaNames(CHINESE_CHEONGAN, CHINESE_GANJI, CHINESE_GAPJA_UNIT,
+            INTERCALATION_STR[1]);
+
+    /**
+     * Precomputed names of one script: the 60 cycle strings as chars, Strings and UTF-8 bytes, and the three
+     * unit suffixes plus the intercalation suffix.
+     */
+    private static final class GapjaNames {
+        final char[] cycleChars = new char[GAPJA_CYCLE * 2];
+        final String[] cycleStrings = new String[GAPJA_CYCLE];
+        final byte[][] cycleBytes = new byte[GAPJA_CYCLE][];
+        final char[] units;
+        final byte[][] unitBytes = new byte[3][];
+        final char[] intercalation;
+        final byte[] intercalationBytes;
+
+        GapjaNames(char[] cheongan, char[] ganji, char[] units, char intercalationStr) {
+            for (int cycle = 0; cycle < GAPJA_CYCLE; cycle++) {
+                cycleChars[cycle * 2] = cheongan[cycle % cheongan.length];
+                cycleChars[cycle * 2 + 1] = ganji[cycle % ganji.length];
+                cycleStrings[cycle] = new String(cycleChars, cycle * 2, 2);
+                cycleBytes[cycle] = cycleStrings[cycle].getBytes(StandardCharsets.UTF_8);
+            }
+            this.units = units.clone();
+            for (int i = 0; i < units.length; i++) {
+                unitBytes[i] = String.valueOf(units[i]).getBytes(StandardCharsets.UTF_8);
+            }
+            this.intercalation = new char[] { ' ', '(', intercalationStr, units[1], ')' };
+            this.intercalationBytes = new String(intercalation).getBytes(StandardCharsets.UTF_8);
+        }
+    }
+
+    private KoreanLunarFormatter() {
+    }
+
+    /**
+     * Returns the cached Korean name of a sexagenary cycle index.
+     * 
+     * @param cycle
+     *            cycle index between 0 and 59
+     * @return
+     * @throws IllegalArgumentException
+     *             if the cycle index is outside 0 ~ 59
+     */
+    public static String getGapja(int cycle) {
+        return KOREAN.cycleStrings[checkCycle(cycle)];
+    }
+
+    /**
+     * Returns the cached Chinese name of a sexagenary cycle index.
+     * 
+     * @param cycle
+     *            cycle index between 0 and 59
+     * @return
+     * @throws IllegalArgumentException
+     *             if the cycle index is outside 0 ~ 59
+     */
+    public static String getChineseGapja(int cycle) {
+        return CHINESE.cycleStrings[checkCycle(cycle)];
+    }
+
+    /**
+     * Writes {@code yyyy-MM-dd} (plus {@code " Intercalation"} when requested) into {@code dst}.
+     * 
+     * @param year
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @param dst
+     * @param offset
+     * @return the offset after the last written char
+     */
+    public static int formatIsoDate(int year, int month, int day, boolean isIntercalation, char[] dst, int offset) {
+        offset = writeNumber(year, 4, dst, offset);
+        dst[offset++] = '-';
+        offset = writeNumber(month, 2, dst, offset);
+        dst[offset++] = '-';
+        offset = writeNumber(day, 2, dst, offset);
+        if (isIntercalation) {
+            System.arraycopy(ISO_INTERCALATION, 0, dst, offset, ISO_INTERCALATION.length);
+            offset += ISO_INTERCALATION.length;
+        }
+        return offset;
+    }
+
+    /**
+     * 
+     * @param sb
+     * @param year
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @return {@code sb}
+     */
+    public static StringBuilder appendIsoDate(StringBuilder sb, int year, int month, int day, boolean isIntercalation) {
+        appendNumber(sb, year, 4);
+        sb.append('-');
+        appendNumber(sb, month, 2);
+        sb.append('-');
+        appendNumber(sb, day, 2);
+        if (isIntercalation) {
+            sb.append(ISO_INTERCALATION);
+        }
+        return sb;
+    }
+
+    /**
+     * 
+     * @param appendable
+     * @param year
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @return {@code appendable}
+     * @throws IOException
+     */
+    public static <A extends Appendable> A appendIsoDate(A appendable, int year, int month, int day,
+            boolean isIntercalation) throws IOException {
+        appendNumber(appendable, year, 4);
+        appendable.append('-');
+        appendNumber(appendable, month, 2);
+        appendable.append('-');
+        appendNumber(appendable, day, 2);
+        if (isIntercalation) {
+            for (char c : ISO_INTERCALATION) {
+                appendable.append(c);
+            }
+        }
+        return appendable;
+    }
+
+    /**
+     * Writes the ISO date as ASCII bytes at the buffer position.
+     * 
+     * @param dst
+     * @param year
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @return {@code dst}
+     */
+    public static ByteBuffer putIsoDate(ByteBuffer dst, int year, int month, int day, boolean isIntercalation) {
+        putNumber(dst, year, 4);
+        dst.put((byte) '-');
+        putNumber(dst, month, 2);
+        dst.put((byte) '-');
+        putNumber(dst, day, 2);
+        if (isIntercalation) {
+            for (char c : ISO_INTERCALATION) {
+                dst.put((byte) c);
+            }
+        }
+        return dst;
+    }
+
+    /**
+     * Writes the Korean gapja string of a lunar date into {@code dst}.
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @param dst
+     * @param offset
+     * @return the offset after the last written char
+     */
+    public static int formatGapja(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation,
+            char[] dst, int offset) {
+        return formatGapja(KOREAN, lunarYear, lunarMonth, lunarDay, isIntercalation, dst, offset);
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @param dst
+     * @param offset
+     * @return the offset after the last written char
+     */
+    public static int formatChineseGapja(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation,
+            char[] dst, int offset) {
+        return formatGapja(CHINESE, lunarYear, lunarMonth, lunarDay, isIntercalation, dst, offset);
+    }
+
+    /**
+     * 
+     * @param sb
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code sb}
+     */
+    public static StringBuilder appendGapja(StringBuilder sb, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation) {
+        try {
+            return appendGapja(KOREAN, sb, lunarYear, lunarMonth, lunarDay, isIntercalation);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * 
+     * @param sb
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code sb}
+     */
+    public static StringBuilder appendChineseGapja(StringBuilder sb, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation) {
+        try {
+            return appendGapja(CHINESE, sb, lunarYear, lunarMonth, lunarDay, isIntercalation);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * 
+     * @param appendable
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code appendable}
+     * @throws IOException
+     */
+    public static <A extends Appendable> A appendGapja(A appendable, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation) throws IOException {
+        return appendGapja(KOREAN, appendable, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    /**
+     * 
+     * @param appendable
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code appendable}
+     * @throws IOException
+     */
+    public static <A extends Appendable> A appendChineseGapja(A appendable, int lunarYear, int lunarMonth,
+            int lunarDay, boolean isIntercalation) throws IOException {
+        return appendGapja(CHINESE, appendable, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    /**
+     * Writes the Korean gapja string as UTF-8 bytes at the buffer position.
+     * 
+     * @param dst
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code dst}
+     */
+    public static ByteBuffer putGapja(ByteBuffer dst, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation) {
+        return putGapja(KOREAN, dst, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    /**
+     * Writes the Chinese gapja string as UTF-8 bytes at the buffer position.
+     * 
+     * @param dst
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@code dst}
+     */
+    public static ByteBuffer putChineseGapja(ByteBuffer dst, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation) {
+        return putGapja(CHINESE, dst, lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    static String getIsoFormat(int year, int month, int day, boolean isIntercalation) {
+        char[] buf = new char[MAX_ISO_LENGTH];
+        return new String(buf, 0, formatIsoDate(year, month, day, isIntercalation, buf, 0));
+    }
+
+    static String getGapjaString(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        char[] buf = new char[MAX_GAPJA_LENGTH];
+        return new String(buf, 0, formatGapja(lunarYear, lunarMonth, lunarDay, isIntercalation, buf, 0));
+    }
+
+    static String getChineseGapJaString(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        char[] buf = new char[MAX_GAPJA_LENGTH];
+        return new String(buf, 0, formatChineseGapja(lunarYear, lunarMonth, lunarDay, isIntercalation, buf, 0));
+    }
+
+    private static int formatGapja(GapjaNames names, int lunarYear, int lunarMonth, int lunarDay,
+            boolean isIntercalation, char[] dst, int offset) {
+        int absDays = getAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        offset = writeCycle(names, getYearCycle(absDays, lunarYear), 0, dst, offset);
+        dst[offset++] = ' ';
+        offset = writeCycle(names, getMonthCycle(absDays, lunarYear, lunarMonth), 1, dst, offset);
+        dst[offset++] = ' ';
+        offset = writeCycle(names, getDayCycle(absDays), 2, dst, offset);
+        if (isIntercalation) {
+            System.arraycopy(names.intercalation, 0, dst, offset, names.intercalation.length);
+            offset += names.intercalation.length;
+        }
+        return offset;
+    }
+
+    private static int writeCycle(GapjaNames names, int cycle, int unit, char[] dst, int offset) {
+        dst[offset++] = names.cycleChars[cycle * 2];
+        dst[offset++] = names.cycleChars[cycle * 2 + 1];
+        dst[offset++] = names.units[unit];
+        return offset;
+    }
+
+    private static <A extends Appendable> A appendGapja(GapjaNames names, A appendable, int lunarYear,
+            int lunarMonth, int lunarDay, boolean isIntercalation) throws IOException {
+        int absDays = getAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        appendCycle(names, getYearCycle(absDays, lunarYear), 0, appendable);
+        appendable.append(' ');
+        appendCycle(names, getMonthCycle(absDays, lunarYear, lunarMonth), 1, appendable);
+        appendable.append(' ');
+        appendCycle(names, getDayCycle(absDays), 2, appendable);
+        if (isIntercalation) {
+            for (char c : names.intercalation) {
+                appendable.append(c);
+            }
+        }
+        return appendable;
+    }
+
+    private static void appendCycle(GapjaNames names, int cycle, int unit, Appendable appendable)
+            throws IOException {
+        appendable.append(names.cycleChars[cycle * 2]);
+        appendable.append(names.cycleChars[cycle * 2 + 1]);
+        appendable.append(names.units[unit]);
+    }
+
+    private static ByteBuffer putGapja(GapjaNames names, ByteBuffer dst, int lunarYear, int lunarMonth,
+            int lunarDay, boolean isIntercalation) {
+        int absDays = getAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
+        dst.put(names.cycleBytes[getYearCycle(absDays, lunarYear)]).put(names.unitBytes[0]);
+        dst.put((byte) ' ');
+        dst.put(names.cycleBytes[getMonthCycle(absDays, lunarYear, lunarMonth)]).put(names.unitBytes[1]);
+        dst.put((byte) ' ');
+        dst.put(names.cycleBytes[getDayCycle(absDays)]).put(names.unitBytes[2]);
+        if (isIntercalation) {
+            dst.put(names.intercalationBytes);
+        }
+        return dst;
+    }
+
+    private static int checkCycle(int cycle) {
+        if (cycle < 0 || cycle >= GAPJA_CYCLE) {
+            throw new IllegalArgumentException("cycle(" + cycle + ") is outside 0 ~ " + (GAPJA_CYCLE - 1));
+        }
+        return cycle;
+    }
+
+    private static int getAbsDays(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay)) {
+            return 0;
+        }
+        return KoreanLunarCalendar.getLunarAbsDays(lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    // invalid dates keep the gapja (0) cycle of the original implementation
+    private static int getYearCycle(int absDays, int lunarYear) {
+        return absDays > 0 ? KoreanLunarCalendar.getGapjaYearCycle(lunarYear) : 0;
+    }
+
+    private static int getMonthCycle(int absDays, int lunarYear, int lunarMonth) {
+        return absDays > 0 ? KoreanLunarCalendar.getGapjaMonthCycle(lunarYear, lunarMonth) : 0;
+    }
+
+    private static int getDayCycle(int absDays) {
+        return absDays > 0 ? KoreanLunarCalendar.getGapjaDayCycle(absDays) : 0;
+    }
+
+    private static int numberLength(long value, int width) {
+        int length = 1;
+        for (long v = value; v >= 10; v /= 10) {
+            length++;
+        }
+        return Math.max(length, width);
+    }
+
+    // negative values are written from a long, since -Integer.MIN_VALUE is not an int
+    private static int writeNumber(int value, int width, char[] dst, int offset) {
+        long magnitude = value;
+        if (value < 0) {
+            dst[offset++] = '-';
+            magnitude = -magnitude;
+            width--;
+        }
+        int end = offset + numberLength(magnitude, width);
+        for (int i = end - 1; i >= offset; i--) {
+            dst[i] = (char) ('0' + magnitude % 10);
+            magnitude /= 10;
+        }
+        return end;
+    }
+
+    private static void appendNumber(Appendable appendable, int value, int width) throws IOException {
+        long magnitude = value;
+        if (value < 0) {
+            appendable.append('-');
+            magnitude = -magnitude;
+            width--;
+        }
+        int length = numberLength(magnitude, width);
+        long divisor = 1;
+        for (int i = 1; i < length; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            appendable.append((char) ('0' + magnitude / divisor % 10));
+        }
+    }
+
+    private static void appendNumber(StringBuilder sb, int value, int width) {
+        try {
+            appendNumber((Appendable) sb, value, width);
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static void putNumber(ByteBuffer dst, int value, int width) {
+        long magnitude = value;
+        if (value < 0) {
+            dst.put((byte) '-');
+            magnitude = -magnitude;
+            width--;
+        }
+        int length = numberLength(magnitude, width);
+        long divisor = 1;
+        for (int i = 1; i < length; i++) {
+            divisor *= 10;
+        }
+        for (; divisor > 0; divisor /= 10) {
+            dst.put((byte) ('0' + magnitude / divisor % 10));
+        }
+    }
+}
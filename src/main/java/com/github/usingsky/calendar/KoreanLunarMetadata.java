@@ -0,0 +1,161 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Calendar facts decoded directly from the lunar data table, without any conversion or allocation.
+ * <p>
+ * Every method takes a year between {@link #getMinYear()} and {@link #getMaxYear()} and throws an
+ * {@link IllegalArgumentException} otherwise. The values of {@link #getMaxYear()} describe the whole lunar year
+ * even though conversions stop at the last solar 12-31 (lunar 2050-11-18 with the built-in table).
+ */
+public final class KoreanLunarMetadata {
+
+    /**
+     * Bit of {@link #getLunarMonthMask(int)} set when the intercalation month has 30 days.
+     */
+    public static final int INTERCALATION_MONTH_BIT = 1 << 12;
+
+    private KoreanLunarMetadata() {
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public static int getMinYear() {
+        return KoreanLunarCalendar.getLunarMinYear();
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public static int getMaxYear() {
+        return KoreanLunarCalendar.getLunarMaxYear();
+    }
+
+    private static int getLunarData(int year) {
+        if (year < getMinYear() || year > getMaxYear()) {
+            throw new IllegalArgumentException("year(" + year + ") is outside " + getMinYear() + " ~ " + getMaxYear());
+        }
+        return KoreanLunarCalendar.getLunarData(year);
+    }
+
+    private static void checkMonth(int month) {
+        if (month < 1 || month > 12) {
+            throw new IllegalArgumentException("month(" + month + ") is outside 1 ~ 12");
+        }
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @return the intercalation month (1 ~ 12), or 0 if the year has none
+     */
+    public static int getIntercalationMonth(int lunarYear) {
+        return KoreanLunarCalendar.getLunarIntercalationMonth(getLunarData(lunarYear));
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @return 12, or 13 with an intercalation month
+     */
+    public static int getLunarMonthCount(int lunarYear) {
+        return getIntercalationMonth(lunarYear) > 0 ? 13 : 12;
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @return 353 ~ 385
+     */
+    public static int getLunarYearDays(int lunarYear) {
+        getLunarData(lunarYear);
+        return KoreanLunarCalendar.getLunarDays(lunarYear);
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param isIntercalation
+     *            ignored when the month is not the intercalation month of the year
+     * @return 29 or 30
+     */
+    public static int getLunarMonthDays(int lunarYear, int lunarMonth, boolean isIntercalation) {
+        getLunarData(lunarYear);
+        checkMonth(lunarMonth);
+        return KoreanLunarCalendar.getLunarDays(lunarYear, lunarMonth, isIntercalation);
+    }
+
+    /**
+     * Month lengths of a lunar year as a bitmask : bit {@code month - 1} is set when that month has 30 days,
+     * {@link #INTERCALATION_MONTH_BIT} when the intercalation month has 30 days.
+     * 
+     * @param lunarYear
+     * @return
+     */
+    public static int getLunarMonthMask(int lunarYear) {
+        int lunarData = getLunarData(lunarYear);
+        // the table keeps month 1 in bit 11 and month 12 in bit 0
+        int mask = Integer.reverse(lunarData & 0x0FFF) >>> 20;
+        if (KoreanLunarCalendar.getLunarIntercalationMonth(lunarData) > 0 && ((lunarData >> 16) & 0x01) > 0) {
+            mask |= INTERCALATION_MONTH_BIT;
+        }
+        return mask;
+    }
+
+    /**
+     * 
+     * @param solarYear
+     * @return
+     */
+    public static boolean isSolarLeapYear(int solarYear) {
+        return ((getLunarData(solarYear) >> 30) & 0x01) > 0;
+    }
+
+    /**
+     * 
+     * @param solarYear
+     * @return 365 or 366
+     */
+    public static int getSolarYearDays(int solarYear) {
+        return isSolarLeapYear(solarYear) ? 366 : 365;
+    }
+
+    /**
+     * 
+     * @param solarYear
+     * @param solarMonth
+     * @return 28 ~ 31
+     */
+    public static int getSolarMonthDays(int solarYear, int solarMonth) {
+        getLunarData(solarYear);
+        checkMonth(solarMonth);
+        return KoreanLunarCalendar.getSolarDays(solarYear, solarMonth);
+    }
+}
@@ -0,0 +1,184 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Validates dates without converting them, returning why a date is rejected as an int code.
+ * <p>
+ * No method allocates or touches shared state. A date accepted by {@link KoreanLunarCalendar#setSolarDate} or
+ * {@link KoreanLunarCalendar#setLunarDate} is {@link #VALID}, except a lunar date flagged as intercalation in a
+ * month without intercalation : it is accepted as the regular month and reported as
+ * {@link #NO_SUCH_INTERCALATION_MONTH}. See {@link #isAccepted(int)}.
+ */
+public final class KoreanLunarValidator {
+
+    /**
+     * The date is valid.
+     */
+    public static final int VALID = 0;
+
+    /**
+     * The date is outside the supported range.
+     */
+    public static final int OUT_OF_RANGE = 1;
+
+    /**
+     * The month is not between 1 and 12.
+     */
+    public static final int INVALID_MONTH = 2;
+
+    /**
+     * The day is below 1 or beyond the length of the month.
+     */
+    public static final int INVALID_DAY = 3;
+
+    /**
+     * Lunar day 30 of a month with 29 days.
+     */
+    public static final int NO_SUCH_DAY_30 = 4;
+
+    /**
+     * The lunar date is flagged as intercalation but the year has no intercalation month with that number.
+     */
+    public static final int NO_SUCH_INTERCALATION_MONTH = 5;
+
+    /**
+     * The solar date is in 1582-10-05 ~ 1582-10-14, skipped by the Gregorian reform.
+     */
+    public static final int SOLAR_GAP = 6;
+
+    private KoreanLunarValidator() {
+    }
+
+    /**
+     * 
+     * @param code
+     * @return true if the conversions accept a date with this code
+     */
+    public static boolean isAccepted(int code) {
+        return code == VALID || code == NO_SUCH_INTERCALATION_MONTH;
+    }
+
+    /**
+     * 
+     * @param solarYear
+     * @param solarMonth
+     * @param solarDay
+     * @return {@link #VALID} or the reason the date is rejected
+     */
+    public static int validateSolarDate(int solarYear, int solarMonth, int solarDay) {
+        return KoreanLunarCalendar.validateDate(false, false, solarYear, solarMonth, solarDay);
+    }
+
+    /**
+     * 
+     * @param lunarYear
+     * @param lunarMonth
+     * @param lunarDay
+     * @param isIntercalation
+     * @return {@link #VALID} or the reason the date is rejected
+     */
+    public static int validateLunarDate(int lunarYear, int lunarMonth, int lunarDay, boolean isIntercalation) {
+        return KoreanLunarCalendar.validateDate(true, isIntercalation, lunarYear, lunarMonth, lunarDay);
+    }
+
+    /**
+     * Validates solar dates given as yyyyMMdd.
+     * 
+     * @param solarDates
+     * @param codes
+     *            receives the code of each date
+     * @return number of dates that are not {@link #VALID}
+     */
+    public static int validateSolarDates(int[] solarDates, int[] codes) {
+        return validateSolarDates(solarDates, codes, 0, solarDates.length);
+    }
+
+    /**
+     * 
+     * @param solarDates
+     * @param codes
+     * @param fromIndex
+     * @param toIndex
+     * @return number of dates in the range that are not {@link #VALID}
+     */
+    public static int validateSolarDates(int[] solarDates, int[] codes, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(solarDates.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(codes.length, fromIndex, toIndex);
+        int invalid = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = solarDates[i];
+            int code = validateSolarDate(dateValue / 10000, dateValue / 100 % 100, dateValue % 100);
+            codes[i] = code;
+            if (code != VALID) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    /**
+     * Validates lunar dates given as yyyyMMdd.
+     * 
+     * @param lunarDates
+     * @param intercalations
+     *            intercalation flag of each date, may be null
+     * @param codes
+     *            receives the code of each date
+     * @return number of dates that are not {@link #VALID}
+     */
+    public static int validateLunarDates(int[] lunarDates, boolean[] intercalations, int[] codes) {
+        return validateLunarDates(lunarDates, intercalations, codes, 0, lunarDates.length);
+    }
+
+    /**
+     * 
+     * @param lunarDates
+     * @param intercalations
+     * @param codes
+     * @param fromIndex
+     * @param toIndex
+     * @return number of dates in the range that are not {@link #VALID}
+     */
+    public static int validateLunarDates(int[] lunarDates, boolean[] intercalations, int[] codes, int fromIndex,
+            int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(lunarDates.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(codes.length, fromIndex, toIndex);
+        if (intercalations != null) {
+            KoreanLunarCalendar.checkBulkRange(intercalations.length, fromIndex, toIndex);
+        }
+        int invalid = 0;
+        for (int i = fromIndex; i < toIndex; i++) {
+            int dateValue = lunarDates[i];
+            int code = validateLunarDate(dateValue / 10000, dateValue / 100 % 100, dateValue % 100,
+                    intercalations != null && intercalations[i]);
+            codes[i] = code;
+            if (code != VALID) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+}
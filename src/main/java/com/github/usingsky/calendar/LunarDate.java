@@ -0,0 +1,131 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Immutable lunar date returned by {@link KoreanLunarCalendar#toLunarDate(int, int, int)}.
+ * Instances hold no reference to shared state and may be freely shared between threads.
+ */
+public final class LunarDate {
+
+    private final int year;
+    private final int month;
+    private final int day;
+    private final boolean isIntercalation;
+
+    LunarDate(int year, int month, int day, boolean isIntercalation) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+        this.isIntercalation = isIntercalation;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public boolean isIntercalation() {
+        return isIntercalation;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public SolarDate toSolarDate() {
+        return KoreanLunarCalendar.toSolarDate(year, month, day, isIntercalation);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public String getGapjaString() {
+        return KoreanLunarFormatter.getGapjaString(year, month, day, isIntercalation);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public String getChineseGapJaString() {
+        return KoreanLunarFormatter.getChineseGapJaString(year, month, day, isIntercalation);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public String getIsoFormat() {
+        return KoreanLunarFormatter.getIsoFormat(year, month, day, isIntercalation);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LunarDate)) {
+            return false;
+        }
+        LunarDate other = (LunarDate) obj;
+        return year == other.year && month == other.month && day == other.day
+                && isIntercalation == other.isIntercalation;
+    }
+
+    @Override
+    public int hashCode() {
+        return ((year * 100 + month) * 100 + day) * 2 + (isIntercalation ? 1 : 0);
+    }
+
+    @Override
+    public String toString() {
+        return getIsoFormat();
+    }
+}
@@ -0,0 +1,191 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Steps through a range of days, returned by {@link KoreanLunarCalendar#cursor(int, int)}.
+ * The lunar and solar dates are carried forward from the previous day, rolling the month
+ * over with the month lengths of the lunar data, so each step is constant time.
+ * A cursor is not thread safe, use one per thread.
+ */
+public final class LunarDateCursor {
+
+    private int absDays;
+    private final int endAbsDays;
+    private boolean started = false;
+
+    private int lunarYear;
+    private int lunarMonth;
+    private int lunarDay;
+    private boolean isIntercalation;
+    private int lunarMonthDays;
+
+    private int solarYear;
+    private int solarMonth;
+    private int solarDay;
+    private int solarMonthDays;
+
+    LunarDateCursor(int startAbsDays, int endAbsDays) {
+        this.absDays = startAbsDays;
+        this.endAbsDays = endAbsDays;
+
+        if (startAbsDays <= endAbsDays) {
+            LunarDate lunarDate = KoreanLunarCalendar.getLunarDateByAbsDays(startAbsDays);
+            lunarYear = lunarDate.getYear();
+            lunarMonth = lunarDate.getMonth();
+            lunarDay = lunarDate.getDay();
+            isIntercalation = lunarDate.isIntercalation();
+            lunarMonthDays = KoreanLunarCalendar.getLunarDays(lunarYear, lunarMonth, isIntercalation);
+
+            int solarDate = KoreanLunarCalendar.getSolarDateValueByAbsDays(startAbsDays);
+            solarYear = solarDate / 10000;
+            solarMonth = solarDate / 100 % 100;
+            solarDay = solarDate % 100;
+            solarMonthDays = KoreanLunarCalendar.getSolarDays(solarYear, solarMonth);
+        }
+    }
+
+    /**
+     * Moves to the next day, the first call moves to the start of the range.
+     *
+     * @return false if the end of the range has been passed
+     */
+    public boolean next() {
+        if (!started) {
+            started = true;
+            return absDays <= endAbsDays;
+        }
+        if (absDays >= endAbsDays) {
+            absDays = endAbsDays + 1;
+            return false;
+        }
+        absDays++;
+
+        if (++lunarDay > lunarMonthDays) {
+            lunarDay = 1;
+            if (!isIntercalation && KoreanLunarCalendar.getLunarIntercalationMonth(
+                    KoreanLunarCalendar.getLunarData(lunarYear)) == lunarMonth) {
+                isIntercalation = true;
+            } else {
+                isIntercalation = false;
+                if (++lunarMonth > 12) {
+                    lunarMonth = 1;
+                    lunarYear++;
+                }
+            }
+            lunarMonthDays = KoreanLunarCalendar.getLunarDays(lunarYear, lunarMonth, isIntercalation);
+        }
+
+        if (++solarDay > solarMonthDays) {
+            solarDay = 1;
+            if (++solarMonth > 12) {
+                solarMonth = 1;
+                solarYear++;
+            }
+            solarMonthDays = KoreanLunarCalendar.getSolarDays(solarYear, solarMonth);
+        }
+        return true;
+    }
+
+    /**
+     * 
+     * @return number of days {@link #next()} can still move to
+     */
+    public int remaining() {
+        return Math.max(0, endAbsDays - absDays + (started ? 0 : 1));
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getLunarYear() {
+        return lunarYear;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getLunarMonth() {
+        return lunarMonth;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getLunarDay() {
+        return lunarDay;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public boolean isIntercalation() {
+        return isIntercalation;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getSolarYear() {
+        return solarYear;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getSolarMonth() {
+        return solarMonth;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getSolarDay() {
+        return solarDay;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public LunarDate getLunarDate() {
+        return new LunarDate(lunarYear, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public SolarDate getSolarDate() {
+        return new SolarDate(solarYear, solarMonth, solarDay);
+    }
+}
@@ -0,0 +1,564 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Streams delimited text (CSV, TSV) with a solar date field and appends the lunar date of every line as a new
+ * last field.
+ * <p>
+ * The input is read in chunks of whole lines, memory-mapped for a file and read into reused direct buffers for any
+ * other channel. Each chunk is converted on the executor : the date field is parsed in place from its ASCII bytes,
+ * either {@code yyyy-MM-dd} or {@code yyyyMMdd} and optionally quoted, converted with {@link PackedDate#toLunar(int)}
+ * and formatted with {@link KoreanLunarFormatter} into the chunk's output buffer, without a {@code String} per line.
+ * The calling thread maps or reads the next chunks and writes the converted ones in input order. At most
+ * {@link #getQueueCapacity()} chunks are in flight : once they are all pending, reading waits for the oldest chunk
+ * to be written, so memory stays around {@code queueCapacity * chunkSize * 2} whatever the file size.
+ * <p>
+ * Lines keep their own terminator ({@code \n} or {@code \r\n}). A line whose field is missing or is not a valid
+ * solar date, like a header line, gets an empty field. Instances are immutable and can be shared across threads.
+ */
+public final class LunarDateFileConverter {
+
+    /**
+     * Format of the appended lunar date.
+     */
+    public enum OutputFormat {
+        /** {@link KoreanLunarFormatter#putIsoDate(ByteBuffer, int, int, int, boolean)}, e.g. 2017-05-01 Intercalation */
+        ISO,
+        /** {@link KoreanLunarFormatter#putGapja(ByteBuffer, int, int, int, boolean)} as UTF-8 */
+        GAPJA,
+        /** {@link KoreanLunarFormatter#putChineseGapja(ByteBuffer, int, int, int, boolean)} as UTF-8 */
+        CHINESE_GAPJA
+    }
+
+    /**
+     * Default size in bytes of a chunk.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+    /**
+     * Default number of chunks in flight.
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    private static final long MAP_WINDOW_SIZE = 64L << 20;
+
+    // delimiter, value and \r\n
+    private static final int MAX_APPENDED_BYTES = 1 + KoreanLunarFormatter.MAX_GAPJA_BYTES + 2;
+
+    private final OutputFormat format;
+    private final int field;
+    private final byte delimiter;
+    private final int chunkSize;
+    private final int queueCapacity;
+
+    /**
+     * 
+     * @param format
+     * @param field
+     *            index of the solar date field, starting at 0
+     * @param delimiter
+     *            ASCII field delimiter, e.g. {@code ','} or {@code '\t'}
+     */
+    public LunarDateFileConverter(OutputFormat format, int field, char delimiter) {
+        this(format, field, delimiter, DEFAULT_CHUNK_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * 
+     * @param format
+     * @param field
+     *            index of the solar date field, starting at 0
+     * @param delimiter
+     *            ASCII field delimiter, e.g. {@code ','} or {@code '\t'}
+     * @param chunkSize
+     *            bytes read or mapped at once, a longer line is read into a larger chunk
+     * @param queueCapacity
+     *            chunks being converted or waiting to be written
+     */
+    public LunarDateFileConverter(OutputFormat format, int field, char delimiter, int chunkSize, int queueCapacity) {
+        if (format == null) {
+            throw new NullPointerException("format");
+        }
+        if (field < 0) {
+            throw new IllegalArgumentException("field(" + field + ") < 0");
+        }
+        if (delimiter >= 0x80 || delimiter == '\n' || delimiter == '\r' || delimiter == '"') {
+            throw new IllegalArgumentException("Invalid delimiter : " + (int) delimiter);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("chunkSize(" + chunkSize + ") < 1");
+        }
+        if (queueCapacity < 1) {
+            throw new IllegalArgumentException("queueCapacity(" + queueCapacity + ") < 1");
+        }
+        this.format = format;
+        this.field = field;
+        this.delimiter = (byte) delimiter;
+        this.chunkSize = chunkSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public OutputFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getField() {
+        return field;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public char getDelimiter() {
+        return (char) delimiter;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * Converts a file into {@code output}, replacing it if it exists, on the common fork/join pool.
+     * 
+     * @param input
+     * @param output
+     * @return the number of lines with a converted date
+     * @throws IOException
+     */
+    public long convert(Path input, Path output) throws IOException {
+        return convert(input, output, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts a file into {@code output}, replacing it if it exists. The input is memory-mapped chunk by chunk.
+     * 
+     * @param input
+     * @param output
+     * @param executor
+     * @return the number of lines with a converted date
+     * @throws IOException
+     */
+    public long convert(Path input, Path output, Executor executor) throws IOException {
+        FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+        try {
+            FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            try {
+                return convert(new MappedChunkReader(in), out, executor);
+            } finally {
+                out.close();
+            }
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Converts everything read from {@code input} into {@code output} on the common fork/join pool. Neither channel
+     * is closed.
+     * 
+     * @param input
+     * @param output
+     * @return the number of lines with a converted date
+     * @throws IOException
+     */
+    public long convert(ReadableByteChannel input, WritableByteChannel output) throws IOException {
+        return convert(input, output, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Converts everything read from {@code input} into {@code output}. Neither channel is closed. A
+     * {@link FileChannel} input is memory-mapped from its current position.
+     * 
+     * @param input
+     * @param output
+     * @param executor
+     * @return the number of lines with a converted date
+     * @throws IOException
+     */
+    public long convert(ReadableByteChannel input, WritableByteChannel output, Executor executor) throws IOException {
+        ChunkReader reader = input instanceof FileChannel ? new MappedChunkReader((FileChannel) input)
+                : new StreamChunkReader(input);
+        return convert(reader, output, executor);
+    }
+
+    private long convert(ChunkReader reader, WritableByteChannel output, Executor executor) throws IOException {
+        if (executor == null) {
+            throw new NullPointerException("executor");
+        }
+        ArrayDeque<Chunk> pending = new ArrayDeque<Chunk>(queueCapacity);
+        ArrayDeque<Chunk> free = new ArrayDeque<Chunk>(queueCapacity);
+        long converted = 0;
+        try {
+            while (true) {
+                Chunk chunk = free.isEmpty() ? new Chunk() : free.poll();
+                if (!reader.next(chunk)) {
+                    break;
+                }
+                chunk.task = new FutureTask<Void>(chunk, null);
+                executor.execute(chunk.task);
+                pending.add(chunk);
+
+                // write what is already converted, and wait for the oldest chunk once the queue is full
+                while (!pending.isEmpty() && (pending.size() >= queueCapacity || pending.peek().task.isDone())) {
+                    Chunk written = pending.poll();
+                    converted += write(written, output);
+                    free.add(written);
+                }
+            }
+            while (!pending.isEmpty()) {
+                converted += write(pending.poll(), output);
+            }
+        } finally {
+            for (Chunk chunk : pending) {
+                chunk.task.cancel(false);
+            }
+        }
+        return converted;
+    }
+
+    private static long write(Chunk chunk, WritableByteChannel output) throws IOException {
+        try {
+            chunk.task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for conversion");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Conversion failed", e.getCause());
+        } catch (CancellationException e) {
+            throw new IllegalStateException("Conversion cancelled", e);
+        }
+
+        ByteBuffer out = chunk.output;
+        ((Buffer) out).flip();
+        while (out.hasRemaining()) {
+            output.write(out);
+        }
+        chunk.task = null;
+        return chunk.converted;
+    }
+
+    private final class Chunk implements Runnable {
+
+        // whole lines between position and limit
+        ByteBuffer input;
+        ByteBuffer output;
+        FutureTask<Void> task;
+        long converted;
+
+        @Override
+        public void run() {
+            converted = convertLines(this);
+        }
+    }
+
+    private long convertLines(Chunk chunk) {
+        ByteBuffer in = chunk.input;
+        ByteBuffer out = chunk.output;
+        int end = in.limit();
+        int capacity = end - in.position() + (end - in.position()) / 2 + MAX_APPENDED_BYTES;
+        if (out == null || out.capacity() < capacity) {
+            out = ByteBuffer.allocateDirect(Math.max(capacity, chunkSize + chunkSize / 2));
+        }
+        ((Buffer) out).clear();
+
+        ByteBuffer src = in.duplicate();
+        long converted = 0;
+        int lineStart = in.position();
+        while (lineStart < end) {
+            int next = lineStart;
+            while (next < end && in.get(next) != '\n') {
+                next++;
+            }
+            int lineEnd = next;
+            if (next < end) {
+                next++;
+                if (lineEnd > lineStart && in.get(lineEnd - 1) == '\r') {
+                    lineEnd--;
+                }
+            }
+
+            int required = lineEnd - lineStart + MAX_APPENDED_BYTES;
+            if (out.remaining() < required) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(Math.max(out.capacity() * 2, out.position() + required));
+                ((Buffer) out).flip();
+                grown.put(out);
+                out = grown;
+            }
+
+            ((Buffer) src).limit(lineEnd).position(lineStart);
+            out.put(src);
+            out.put(delimiter);
+            int packedLunar = parseAndConvert(in, lineStart, lineEnd);
+            if (packedLunar != PackedDate.INVALID) {
+                putLunarDate(out, packedLunar);
+                converted++;
+            }
+            ((Buffer) src).limit(next).position(lineEnd);
+            out.put(src);
+            lineStart = next;
+        }
+        chunk.output = out;
+        return converted;
+    }
+
+    private int parseAndConvert(ByteBuffer in, int lineStart, int lineEnd) {
+        int fieldStart = lineStart;
+        for (int i = 0; i < field; i++) {
+            while (fieldStart < lineEnd && in.get(fieldStart) != delimiter) {
+                fieldStart++;
+            }
+            if (fieldStart == lineEnd) {
+                return PackedDate.INVALID;
+            }
+            fieldStart++;
+        }
+        int fieldEnd = fieldStart;
+        while (fieldEnd < lineEnd && in.get(fieldEnd) != delimiter) {
+            fieldEnd++;
+        }
+        if (fieldEnd - fieldStart >= 2 && in.get(fieldStart) == '"' && in.get(fieldEnd - 1) == '"') {
+            fieldStart++;
+            fieldEnd--;
+        }
+
+        int year;
+        int month;
+        int day;
+        if (fieldEnd - fieldStart == 10 && in.get(fieldStart + 4) == '-' && in.get(fieldStart + 7) == '-') {
+            year = parseDigits(in, fieldStart, 4);
+            month = parseDigits(in, fieldStart + 5, 2);
+            day = parseDigits(in, fieldStart + 8, 2);
+        } else if (fieldEnd - fieldStart == 8) {
+            year = parseDigits(in, fieldStart, 4);
+            month = parseDigits(in, fieldStart + 4, 2);
+            day = parseDigits(in, fieldStart + 6, 2);
+        } else {
+            return PackedDate.INVALID;
+        }
+        // keep the values inside their packed bits, PackedDate.toLunar validates the rest
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > 31) {
+            return PackedDate.INVALID;
+        }
+        return PackedDate.toLunar(PackedDate.encodeSolar(year, month, day));
+    }
+
+    private static int parseDigits(ByteBuffer in, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = in.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private void putLunarDate(ByteBuffer out, int packedLunar) {
+        int year = PackedDate.getLunarYear(packedLunar);
+        int month = PackedDate.getLunarMonth(packedLunar);
+        int day = PackedDate.getLunarDay(packedLunar);
+        boolean isIntercalation = PackedDate.isIntercalation(packedLunar);
+        switch (format) {
+        case GAPJA:
+            KoreanLunarFormatter.putGapja(out, year, month, day, isIntercalation);
+            break;
+        case CHINESE_GAPJA:
+            KoreanLunarFormatter.putChineseGapja(out, year, month, day, isIntercalation);
+            break;
+        default:
+            KoreanLunarFormatter.putIsoDate(out, year, month, day, isIntercalation);
+            break;
+        }
+    }
+
+    private interface ChunkReader {
+
+        /**
+         * Sets the input of the chunk to the next whole lines.
+         * 
+         * @param chunk
+         * @return false at the end of the input
+         * @throws IOException
+         */
+        boolean next(Chunk chunk) throws IOException;
+    }
+
+    private static int lastLineEnd(ByteBuffer buffer, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buffer.get(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private final class MappedChunkReader implements ChunkReader {
+
+        private final FileChannel channel;
+        private final long size;
+        private long position;
+        // chunks are slices of a larger mapping, so a huge file does not leave thousands of mappings to the GC
+        private ByteBuffer window;
+        private long windowStart;
+
+        MappedChunkReader(FileChannel channel) throws IOException {
+            this.channel = channel;
+            this.size = channel.size();
+            this.position = channel.position();
+        }
+
+        @Override
+        public boolean next(Chunk chunk) throws IOException {
+            if (position >= size) {
+                return false;
+            }
+            long length = chunkSize;
+            while (true) {
+                int available = (int) Math.min(Math.min(length, size - position), Integer.MAX_VALUE);
+                if (window == null || position + available > windowStart + window.capacity()) {
+                    windowStart = position;
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(Math.max(MAP_WINDOW_SIZE, available), Math.min(size - position, Integer.MAX_VALUE)));
+                }
+                int from = (int) (position - windowStart);
+                int to = from + available;
+                int end = position + available == size ? to : lastLineEnd(window, from, to);
+                if (end > from) {
+                    ByteBuffer buffer = window.duplicate();
+                    ((Buffer) buffer).limit(end).position(from);
+                    chunk.input = buffer;
+                    position += end - from;
+                    return true;
+                }
+                if (available == Integer.MAX_VALUE) {
+                    throw new IOException("Line longer than " + Integer.MAX_VALUE + " bytes at " + position);
+                }
+                // a single line longer than the chunk
+                length *= 2;
+            }
+        }
+    }
+
+    private final class StreamChunkReader implements ChunkReader {
+
+        private final ReadableByteChannel channel;
+        // bytes of the incomplete last line of the previous read
+        private ByteBuffer carry = ByteBuffer.allocate(0);
+        private boolean isEndOfInput;
+
+        StreamChunkReader(ReadableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public boolean next(Chunk chunk) throws IOException {
+            ByteBuffer buffer = chunk.input;
+            if (buffer == null || buffer.capacity() < Math.max(chunkSize, carry.remaining() * 2)) {
+                buffer = ByteBuffer.allocateDirect(Math.max(chunkSize, carry.remaining() * 2));
+            }
+            ((Buffer) buffer).clear();
+            buffer.put(carry);
+
+            while (true) {
+                while (!isEndOfInput && buffer.hasRemaining()) {
+                    if (channel.read(buffer) < 0) {
+                        isEndOfInput = true;
+                    }
+                }
+                int end = buffer.position();
+                if (isEndOfInput) {
+                    if (end == 0) {
+                        return false;
+                    }
+                } else {
+                    end = lastLineEnd(buffer, 0, end);
+                }
+                if (end > 0) {
+                    keepCarry(buffer, end);
+                    ((Buffer) buffer).limit(end).position(0);
+                    chunk.input = buffer;
+                    return true;
+                }
+                // a single line longer than the chunk
+                ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+                ((Buffer) buffer).flip();
+                grown.put(buffer);
+                buffer = grown;
+            }
+        }
+
+        private void keepCarry(ByteBuffer buffer, int end) {
+            int length = buffer.position() - end;
+            if (carry.capacity() < length) {
+                carry = ByteBuffer.allocate(Math.max(length, carry.capacity() * 2));
+            }
+            ((Buffer) carry).clear();
+            for (int i = end; i < end + length; i++) {
+                carry.put(buffer.get(i));
+            }
+            ((Buffer) carry).flip();
+        }
+    }
+}
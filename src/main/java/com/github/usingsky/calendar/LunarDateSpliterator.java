@@ -0,0 +1,90 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator behind {@link KoreanLunarCalendar#range(int, int)}. Splitting halves the remaining
+ * days and seeks once, every element after that is produced by a {@link LunarDateCursor} step.
+ */
+class LunarDateSpliterator implements Spliterator<LunarDate> {
+
+    private static final int MIN_SPLIT_DAYS = 256;
+
+    private int nextAbsDays;
+    private final int endAbsDays;
+    private LunarDateCursor cursor;
+
+    LunarDateSpliterator(int startAbsDays, int endAbsDays) {
+        this.nextAbsDays = startAbsDays;
+        this.endAbsDays = endAbsDays;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LunarDate> action) {
+        if (nextAbsDays > endAbsDays) {
+            return false;
+        }
+        if (cursor == null) {
+            cursor = new LunarDateCursor(nextAbsDays, endAbsDays);
+        }
+        cursor.next();
+        nextAbsDays++;
+        action.accept(cursor.getLunarDate());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super LunarDate> action) {
+        while (tryAdvance(action)) {
+        }
+    }
+
+    @Override
+    public Spliterator<LunarDate> trySplit() {
+        int remaining = endAbsDays - nextAbsDays + 1;
+        if (remaining < MIN_SPLIT_DAYS * 2) {
+            return null;
+        }
+
+        int middleAbsDays = nextAbsDays + remaining / 2;
+        LunarDateSpliterator prefix = new LunarDateSpliterator(nextAbsDays, middleAbsDays - 1);
+        nextAbsDays = middleAbsDays;
+        cursor = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.max(0, endAbsDays - nextAbsDays + 1);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | DISTINCT | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
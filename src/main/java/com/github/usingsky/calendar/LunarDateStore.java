@@ -0,0 +1,358 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Columnar store of packed lunar dates, e.g. lunar birthdays, answering which rows recur in a solar date window.
+ * <p>
+ * Rows are {@link PackedDate} lunar values appended one after another, a row number is its append order. They are
+ * kept in an {@code int} column, on the heap or off-heap in a direct buffer, never as objects. Rows are indexed by
+ * their month, intercalation flag and day with a counting sort. The solar day of every such recurring date in
+ * every year comes from a {@link LunarEventResolver}, which also decides the fallbacks for an intercalation month
+ * a year does not have and for day 30 of a 29 day month. A window query walks the days of the window, looks up
+ * the recurring dates of each day and copies their runs of the sorted index, so its cost depends on the window
+ * and the result, not on the size of the store. The year of a stored date is kept but does not restrict its
+ * occurrences.
+ * <p>
+ * Rows appended after the last {@link #index()} are sorted separately at the next query, and merged into the
+ * index once they exceed an eighth of it. Instances are not thread-safe : confine them to a thread or synchronize
+ * appends and queries. Once {@link #index()} has been called, queries without appends can run concurrently.
+ */
+public final class LunarDateStore {
+
+    private static final int SLOTS = LunarEventResolver.SLOTS_PER_YEAR;
+    private static final int MIN_CAPACITY = 1024;
+    private static final int MIN_TAIL_MERGE = 4096;
+    // largest array most VMs allocate
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+    private final LunarEventResolver resolver;
+    private final boolean isOffHeap;
+
+    private IntBuffer dates;
+    private int size;
+
+    // rows [0, indexedSize) sorted by slot, the rows of slot s are in [slotOffsets[s], slotOffsets[s + 1])
+    private IntBuffer rowsBySlot;
+    private final int[] slotOffsets = new int[SLOTS + 1];
+    private int indexedSize;
+
+    // rows [indexedSize, size) sorted by slot when tailSize == size
+    private int[] tailRowsBySlot = new int[0];
+    private final int[] tailSlotOffsets = new int[SLOTS + 1];
+    private int tailSize;
+
+    /**
+     * Creates a heap store.
+     * 
+     * @param resolver
+     *            lunar years and fallbacks of the occurrences
+     */
+    public LunarDateStore(LunarEventResolver resolver) {
+        this(resolver, false, MIN_CAPACITY);
+    }
+
+    /**
+     * 
+     * @param resolver
+     *            lunar years and fallbacks of the occurrences
+     * @param isOffHeap
+     *            true to keep the column and the index in direct buffers
+     * @param initialCapacity
+     *            rows allocated up front
+     */
+    public LunarDateStore(LunarEventResolver resolver, boolean isOffHeap, int initialCapacity) {
+        if (resolver == null) {
+            throw new NullPointerException("resolver");
+        }
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity(" + initialCapacity + ") < 0");
+        }
+        this.resolver = resolver;
+        this.isOffHeap = isOffHeap;
+        this.dates = allocate(Math.max(initialCapacity, 1));
+        this.rowsBySlot = allocate(0);
+    }
+
+    private IntBuffer allocate(int capacity) {
+        if (isOffHeap) {
+            return ByteBuffer.allocateDirect(capacity * 4).order(ByteOrder.nativeOrder()).asIntBuffer();
+        }
+        return IntBuffer.allocate(capacity);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public LunarEventResolver getResolver() {
+        return resolver;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public boolean isOffHeap() {
+        return isOffHeap;
+    }
+
+    /**
+     * 
+     * @return the number of rows
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Appends a lunar date. The intercalation flag is cleared for a month without intercalation, like
+     * {@link PackedDate#lunarToPair(int)}.
+     * 
+     * @param packedLunar
+     * @return the row of the date
+     * @throws IllegalArgumentException
+     *             if the lunar date is not valid
+     */
+    public int append(int packedLunar) {
+        int packedSolar = PackedDate.toSolar(packedLunar);
+        if (packedSolar == PackedDate.INVALID) {
+            throw new IllegalArgumentException("Invalid lunar date : " + packedLunar);
+        }
+        if (size == dates.capacity()) {
+            dates = grow(dates, size);
+        }
+        dates.put(size, PackedDate.toLunar(packedSolar));
+        return size++;
+    }
+
+    /**
+     * Appends many lunar dates, see {@link #append(int)}.
+     * 
+     * @param packedLunars
+     * @param fromIndex
+     * @param toIndex
+     * @return the row of the first date
+     */
+    public int append(int[] packedLunars, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(packedLunars.length, fromIndex, toIndex);
+        int firstRow = size;
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                append(packedLunars[i]);
+            }
+        } catch (IllegalArgumentException e) {
+            size = firstRow;
+            throw e;
+        }
+        return firstRow;
+    }
+
+    private IntBuffer grow(IntBuffer buffer, int length) {
+        IntBuffer grown = allocate(Math.max(MIN_CAPACITY, buffer.capacity() + (buffer.capacity() >> 1)));
+        IntBuffer src = buffer.duplicate();
+        ((Buffer) src).position(0).limit(length);
+        grown.put(src);
+        ((Buffer) grown).clear();
+        return grown;
+    }
+
+    /**
+     * 
+     * @param row
+     * @return the packed lunar date of the row
+     */
+    public int get(int row) {
+        checkRow(row);
+        return dates.get(row);
+    }
+
+    /**
+     * 
+     * @param row
+     * @param lunarYear
+     * @return the solar date as yyyyMMdd of the row's month and day in that year, or
+     *         {@link KoreanLunarCalendar#INVALID_DATE} if it does not occur
+     */
+    public int getSolarDate(int row, int lunarYear) {
+        checkRow(row);
+        int packedLunar = dates.get(row);
+        return resolver.resolve(LunarEventResolver.rule(PackedDate.getLunarMonth(packedLunar),
+                PackedDate.getLunarDay(packedLunar), PackedDate.isIntercalation(packedLunar)), lunarYear);
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row(" + row + ") is outside 0 ~ " + (size - 1));
+        }
+    }
+
+    private static int getSlot(int packedLunar) {
+        return LunarEventResolver.getSlot(PackedDate.getLunarMonth(packedLunar), PackedDate.getLunarDay(packedLunar),
+                PackedDate.isIntercalation(packedLunar));
+    }
+
+    /**
+     * Sorts every appended row into the index.
+     */
+    public void index() {
+        if (indexedSize == size) {
+            return;
+        }
+        Arrays.fill(slotOffsets, 0);
+        for (int row = 0; row < size; row++) {
+            slotOffsets[getSlot(dates.get(row)) + 1]++;
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            slotOffsets[slot + 1] += slotOffsets[slot];
+        }
+        IntBuffer sorted = rowsBySlot.capacity() >= size ? rowsBySlot : allocate(dates.capacity());
+        int[] filled = new int[SLOTS];
+        for (int row = 0; row < size; row++) {
+            int slot = getSlot(dates.get(row));
+            sorted.put(slotOffsets[slot] + filled[slot]++, row);
+        }
+        rowsBySlot = sorted;
+        indexedSize = size;
+        tailSize = size;
+        Arrays.fill(tailSlotOffsets, 0);
+    }
+
+    private void indexTail() {
+        if (size - indexedSize > Math.max(MIN_TAIL_MERGE, indexedSize / 8)) {
+            index();
+            return;
+        }
+        if (tailSize == size) {
+            return;
+        }
+        int length = size - indexedSize;
+        Arrays.fill(tailSlotOffsets, 0);
+        for (int row = indexedSize; row < size; row++) {
+            tailSlotOffsets[getSlot(dates.get(row)) + 1]++;
+        }
+        for (int slot = 0; slot < SLOTS; slot++) {
+            tailSlotOffsets[slot + 1] += tailSlotOffsets[slot];
+        }
+        if (tailRowsBySlot.length < length) {
+            tailRowsBySlot = new int[Math.max(length, tailRowsBySlot.length * 2)];
+        }
+        int[] filled = new int[SLOTS];
+        for (int row = indexedSize; row < size; row++) {
+            int slot = getSlot(dates.get(row));
+            tailRowsBySlot[tailSlotOffsets[slot] + filled[slot]++] = row;
+        }
+        tailSize = size;
+    }
+
+    /**
+     * 
+     * @param fromSolarDate
+     *            yyyyMMdd, inclusive
+     * @param toSolarDate
+     *            yyyyMMdd, inclusive
+     * @return the number of occurrences in the window, a row recurring twice counts twice
+     */
+    public long count(int fromSolarDate, int toSolarDate) {
+        return scan(fromSolarDate, toSolarDate, null);
+    }
+
+    /**
+     * Lists the rows whose month and day fall in a solar window, ordered by solar day, then lunar month and day,
+     * then row. A window longer than a year lists a row once per occurrence.
+     * 
+     * @param fromSolarDate
+     *            yyyyMMdd, inclusive
+     * @param toSolarDate
+     *            yyyyMMdd, inclusive
+     * @return the rows
+     * @throws IllegalArgumentException
+     *             if the window has more occurrences than an array holds, see {@link #count(int, int)}
+     */
+    public int[] find(int fromSolarDate, int toSolarDate) {
+        long count = count(fromSolarDate, toSolarDate);
+        if (count > MAX_ARRAY_LENGTH) {
+            throw new IllegalArgumentException("Solar window " + fromSolarDate + " ~ " + toSolarDate + " has " + count
+                    + " occurrences, more than an array holds");
+        }
+        int[] rows = new int[(int) count];
+        scan(fromSolarDate, toSolarDate, rows);
+        return rows;
+    }
+
+    private long scan(int fromSolarDate, int toSolarDate, int[] rows) {
+        int fromAbsDays = getAbsDays(fromSolarDate);
+        int toAbsDays = getAbsDays(toSolarDate);
+        if (fromAbsDays > toAbsDays) {
+            throw new IllegalArgumentException("Invalid solar window : " + fromSolarDate + " ~ " + toSolarDate);
+        }
+        indexTail();
+
+        int[] slots = new int[LunarEventResolver.MAX_RULES_PER_DAY];
+        // tens of millions of rows over decades recur more than 2^31 times
+        long count = 0;
+        for (int absDays = fromAbsDays; absDays <= toAbsDays; absDays++) {
+            int slotCount = resolver.getSlots(absDays, slots);
+            // a day holds several slots with fallbacks, or across the end of a lunar year
+            if (slotCount > 1) {
+                Arrays.sort(slots, 0, slotCount);
+            }
+            for (int i = 0; i < slotCount; i++) {
+                int slot = slots[i];
+                int from = slotOffsets[slot];
+                int to = slotOffsets[slot + 1];
+                if (rows != null) {
+                    for (int j = from; j < to; j++) {
+                        rows[(int) count + j - from] = rowsBySlot.get(j);
+                    }
+                }
+                count += to - from;
+                int tailFrom = tailSlotOffsets[slot];
+                int tailTo = tailSlotOffsets[slot + 1];
+                if (rows != null) {
+                    System.arraycopy(tailRowsBySlot, tailFrom, rows, (int) count, tailTo - tailFrom);
+                }
+                count += tailTo - tailFrom;
+            }
+        }
+        return count;
+    }
+
+    private static int getAbsDays(int solarDate) {
+        int year = solarDate / 10000;
+        int month = solarDate / 100 % 100;
+        int day = solarDate % 100;
+        if (!KoreanLunarCalendar.checkValidDate(false, false, year, month, day)) {
+            throw new IllegalArgumentException("Invalid solar date : " + solarDate);
+        }
+        return KoreanLunarCalendar.getSolarAbsDays(year, month, day);
+    }
+}
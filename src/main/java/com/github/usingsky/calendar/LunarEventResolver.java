@@ -0,0 +1,356 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Resolves recurring lunar dates (holidays, anniversaries) to solar dates over a range of lunar years.
+ * <p>
+ * A rule is a lunar month and day with an intercalation flag, encoded by {@link #rule(int, int, boolean)}. The
+ * resolver builds an index once, holding the solar day of every possible rule in every year of its range, plus a
+ * reverse index from solar day to the rules falling on it. Resolving a rule or listing the rules of a day is then
+ * an array read, so millions of rules can be resolved without any conversion.
+ * <p>
+ * When a rule asks for an intercalation month the year does not have, or for day 30 of a 29 day month, the
+ * configured fallback decides where it lands. Solar dates are yyyyMMdd int values like the bulk conversions of
+ * {@link KoreanLunarCalendar}, and {@link KoreanLunarCalendar#INVALID_DATE} marks a rule that does not occur.
+ * Instances are immutable and can be shared across threads.
+ */
+public final class LunarEventResolver {
+
+    /**
+     * Fallback for a rule on an intercalation month in a year without it.
+     */
+    public enum IntercalationFallback {
+        /** the rule does not occur that year */
+        SKIP,
+        /** the rule falls on the regular month of the same number */
+        REGULAR_MONTH
+    }
+
+    /**
+     * Fallback for a rule on day 30 of a month with 29 days.
+     */
+    public enum DayFallback {
+        /** the rule does not occur that year */
+        SKIP,
+        /** the rule falls on day 29 */
+        LAST_DAY,
+        /** the rule falls on the first day of the following month */
+        NEXT_DAY
+    }
+
+    /**
+     * Seollal, lunar 1/1.
+     */
+    public static final int SEOLLAL = rule(1, 1, false);
+
+    /**
+     * Buddha's Birthday, lunar 4/8.
+     */
+    public static final int BUDDHAS_BIRTHDAY = rule(4, 8, false);
+
+    /**
+     * Chuseok, lunar 8/15.
+     */
+    public static final int CHUSEOK = rule(8, 15, false);
+
+    /**
+     * Maximum number of rules a single solar day can hold, see {@link #getRules(int, int[])}.
+     */
+    public static final int MAX_RULES_PER_DAY = 4;
+
+    private static final int MONTH_DAYS = 30;
+    static final int SLOTS_PER_YEAR = 12 * 2 * MONTH_DAYS;
+
+    private final int fromYear;
+    private final int toYear;
+    private final IntercalationFallback intercalationFallback;
+    private final DayFallback dayFallback;
+
+    // absolute day of each rule, index : (year - fromYear) * SLOTS_PER_YEAR + slot, 0 if it does not occur
+    private final int[] absDaysBySlot;
+    // rules of each absolute day : slots in [ruleOffsets[i], ruleOffsets[i + 1]) of day firstAbsDays + i
+    private final int firstAbsDays;
+    private final int[] ruleOffsets;
+    private final short[] rulesByDay;
+
+    /**
+     * Builds the index for lunar years {@code fromYear} to {@code toYear}.
+     * 
+     * @param fromYear
+     * @param toYear
+     * @param intercalationFallback
+     * @param dayFallback
+     */
+    public LunarEventResolver(int fromYear, int toYear, IntercalationFallback intercalationFallback,
+            DayFallback dayFallback) {
+        if (fromYear > toYear || fromYear < KoreanLunarCalendar.getLunarMinYear()
+                || toYear > KoreanLunarCalendar.getLunarMaxYear()) {
+            throw new IllegalArgumentException("Invalid lunar year range : " + fromYear + " ~ " + toYear);
+        }
+        if (intercalationFallback == null || dayFallback == null) {
+            throw new NullPointerException("fallback");
+        }
+        this.fromYear = fromYear;
+        this.toYear = toYear;
+        this.intercalationFallback = intercalationFallback;
+        this.dayFallback = dayFallback;
+
+        absDaysBySlot = new int[(toYear - fromYear + 1) * SLOTS_PER_YEAR];
+        int minAbsDays = Integer.MAX_VALUE;
+        int maxAbsDays = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            int intercalationMonth = KoreanLunarCalendar.getLunarIntercalationMonth(KoreanLunarCalendar.getLunarData(year));
+            for (int slot = 0; slot < SLOTS_PER_YEAR; slot++) {
+                int absDays = resolveAbsDays(year, intercalationMonth, getSlotMonth(slot), getSlotDay(slot),
+                        isSlotIntercalation(slot));
+                absDaysBySlot[(year - fromYear) * SLOTS_PER_YEAR + slot] = absDays;
+                if (absDays > 0) {
+                    minAbsDays = Math.min(minAbsDays, absDays);
+                    maxAbsDays = Math.max(maxAbsDays, absDays);
+                }
+            }
+        }
+
+        firstAbsDays = minAbsDays;
+        ruleOffsets = new int[maxAbsDays - minAbsDays + 2];
+        for (int absDays : absDaysBySlot) {
+            if (absDays > 0) {
+                ruleOffsets[absDays - firstAbsDays + 1]++;
+            }
+        }
+        for (int i = 1; i < ruleOffsets.length; i++) {
+            ruleOffsets[i] += ruleOffsets[i - 1];
+        }
+        rulesByDay = new short[ruleOffsets[ruleOffsets.length - 1]];
+        int[] filled = new int[ruleOffsets.length - 1];
+        for (int i = 0; i < absDaysBySlot.length; i++) {
+            int absDays = absDaysBySlot[i];
+            if (absDays > 0) {
+                int day = absDays - firstAbsDays;
+                rulesByDay[ruleOffsets[day] + filled[day]++] = (short) (i % SLOTS_PER_YEAR);
+            }
+        }
+    }
+
+    private int resolveAbsDays(int year, int intercalationMonth, int month, int day, boolean isIntercalation) {
+        if (isIntercalation && intercalationMonth != month) {
+            if (intercalationFallback == IntercalationFallback.SKIP) {
+                return 0;
+            }
+            isIntercalation = false;
+        }
+
+        int nextDay = 0;
+        int monthDays = KoreanLunarCalendar.getLunarDays(year, month, isIntercalation);
+        if (day > monthDays) {
+            if (dayFallback == DayFallback.SKIP) {
+                return 0;
+            }
+            nextDay = dayFallback == DayFallback.NEXT_DAY ? 1 : 0;
+            day = monthDays;
+        }
+
+        int absDays = KoreanLunarCalendar.getLunarAbsDays(year, month, day, isIntercalation) + nextDay;
+        return absDays > KoreanLunarCalendar.getMaxAbsDays() ? 0 : absDays;
+    }
+
+    /**
+     * Encodes a recurring lunar date.
+     * 
+     * @param lunarMonth
+     *            1 ~ 12
+     * @param lunarDay
+     *            1 ~ 30
+     * @param isIntercalation
+     * @return
+     */
+    public static int rule(int lunarMonth, int lunarDay, boolean isIntercalation) {
+        if (lunarMonth < 1 || lunarMonth > 12 || lunarDay < 1 || lunarDay > MONTH_DAYS) {
+            throw new IllegalArgumentException("Invalid lunar rule : " + lunarMonth + "/" + lunarDay);
+        }
+        return PackedDate.encodeLunar(0, lunarMonth, lunarDay, isIntercalation);
+    }
+
+    private static int getSlot(int rule) {
+        int month = PackedDate.getLunarMonth(rule);
+        int day = PackedDate.getLunarDay(rule);
+        if (PackedDate.getLunarYear(rule) != 0 || month < 1 || month > 12 || day < 1 || day > MONTH_DAYS) {
+            throw new IllegalArgumentException("Invalid lunar rule : " + rule);
+        }
+        return getSlot(month, day, PackedDate.isIntercalation(rule));
+    }
+
+    /**
+     * Slots follow the lunar order of a year : month, then the intercalation month, then day.
+     * 
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @return 0 ~ {@link #SLOTS_PER_YEAR} - 1
+     */
+    static int getSlot(int month, int day, boolean isIntercalation) {
+        return ((month - 1) * 2 + (isIntercalation ? 1 : 0)) * MONTH_DAYS + day - 1;
+    }
+
+    private static int getSlotMonth(int slot) {
+        return slot / (2 * MONTH_DAYS) + 1;
+    }
+
+    private static int getSlotDay(int slot) {
+        return slot % MONTH_DAYS + 1;
+    }
+
+    private static boolean isSlotIntercalation(int slot) {
+        return (slot / MONTH_DAYS) % 2 == 1;
+    }
+
+    private int getAbsDays(int rule, int lunarYear) {
+        if (lunarYear < fromYear || lunarYear > toYear) {
+            throw new IllegalArgumentException("lunarYear(" + lunarYear + ") is outside " + fromYear + " ~ " + toYear);
+        }
+        return absDaysBySlot[(lunarYear - fromYear) * SLOTS_PER_YEAR + getSlot(rule)];
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getFromYear() {
+        return fromYear;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getToYear() {
+        return toYear;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public IntercalationFallback getIntercalationFallback() {
+        return intercalationFallback;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public DayFallback getDayFallback() {
+        return dayFallback;
+    }
+
+    /**
+     * 
+     * @param rule
+     * @param lunarYear
+     * @return the solar date as yyyyMMdd, or {@link KoreanLunarCalendar#INVALID_DATE} if the rule does not occur
+     */
+    public int resolve(int rule, int lunarYear) {
+        int absDays = getAbsDays(rule, lunarYear);
+        return absDays == 0 ? KoreanLunarCalendar.INVALID_DATE : KoreanLunarCalendar.getSolarDateValueByAbsDays(absDays);
+    }
+
+    /**
+     * Resolves many rules in one lunar year.
+     * 
+     * @param rules
+     * @param lunarYear
+     * @param solarDates
+     *            receives the solar date of each rule
+     */
+    public void resolve(int[] rules, int lunarYear, int[] solarDates) {
+        KoreanLunarCalendar.checkBulkRange(solarDates.length, 0, rules.length);
+        for (int i = 0; i < rules.length; i++) {
+            solarDates[i] = resolve(rules[i], lunarYear);
+        }
+    }
+
+    /**
+     * Resolves many rules in every year of the index.
+     * 
+     * @param rules
+     * @param solarDates
+     *            receives the solar date of rule {@code i} in year {@code y} at
+     *            {@code (y - getFromYear()) * rules.length + i}
+     */
+    public void resolve(int[] rules, int[] solarDates) {
+        KoreanLunarCalendar.checkBulkRange(solarDates.length, 0, rules.length * (toYear - fromYear + 1));
+        int index = 0;
+        for (int year = fromYear; year <= toYear; year++) {
+            for (int rule : rules) {
+                solarDates[index++] = resolve(rule, year);
+            }
+        }
+    }
+
+    /**
+     * Lists the rules falling on a solar day, e.g. to find today's anniversaries.
+     * 
+     * @param solarDate
+     *            yyyyMMdd
+     * @param rules
+     *            receives the rules, at least {@link #MAX_RULES_PER_DAY} long
+     * @return number of rules written
+     */
+    public int getRules(int solarDate, int[] rules) {
+        int year = solarDate / 10000;
+        int month = solarDate / 100 % 100;
+        int day = solarDate % 100;
+        if (!KoreanLunarCalendar.checkValidDate(false, false, year, month, day)) {
+            return 0;
+        }
+        // slots are written in place, then turned into rules
+        int count = getSlots(KoreanLunarCalendar.getSolarAbsDays(year, month, day), rules);
+        for (int i = 0; i < count; i++) {
+            int slot = rules[i];
+            rules[i] = PackedDate.encodeLunar(0, getSlotMonth(slot), getSlotDay(slot), isSlotIntercalation(slot));
+        }
+        return count;
+    }
+
+    /**
+     * 
+     * @param absDays
+     * @param slots
+     *            receives the slots falling on the day, at least {@link #MAX_RULES_PER_DAY} long
+     * @return number of slots written
+     */
+    int getSlots(int absDays, int[] slots) {
+        int index = absDays - firstAbsDays;
+        if (index < 0 || index >= ruleOffsets.length - 1) {
+            return 0;
+        }
+        int count = 0;
+        for (int i = ruleOffsets[index]; i < ruleOffsets[index + 1]; i++) {
+            slots[count++] = rulesByDay[i];
+        }
+        return count;
+    }
+}
@@ -0,0 +1,458 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Order-preserving packed int encoding of lunar and solar dates.
+ * <p>
+ * Both calendars use the same layout, so packed values sort like the dates they encode:
+ * 
+ * <pre>
+ * bits 10-31 : year
+ * bits  6- 9 : month (1 ~ 12)
+ * bit      5 : intercalation month flag (lunar only, a leap month sorts after the regular month)
+ * bits  0- 4 : day (lunar 1 ~ 30)
+ * bits  0- 5 : day (solar 1 ~ 31, October 1582 up to 41 as accepted by {@link KoreanLunarCalendar})
+ * </pre>
+ * 
+ * A lunar date and its solar equivalent can be kept together in one {@code long}, lunar value in the high
+ * 32 bits and solar value in the low 32 bits, which keeps the same order.
+ * <p>
+ * {@link #INVALID} (0) never encodes a supported date and is returned by the conversions for invalid input.
+ * Encoding does not validate, the conversions do.
+ * <p>
+ * Lunar arithmetic works on the day number and the month index behind the data table, so adding days or months
+ * and measuring the distance between two lunar dates take constant time whatever the distance. Intercalation
+ * months count as months.
+ */
+public final class PackedDate {
+
+    /**
+     * Value returned by the conversions for inputs that are not valid dates.
+     */
+    public static final int INVALID = 0;
+
+    static final int YEAR_SHIFT = 10;
+    static final int MONTH_SHIFT = 6;
+    static final int MONTH_MASK = 0x0F;
+    static final int LUNAR_INTERCALATION = 1 << 5;
+    static final int LUNAR_DAY_MASK = 0x1F;
+    static final int SOLAR_DAY_MASK = 0x3F;
+
+    private PackedDate() {
+    }
+
+    /**
+     * 
+     * @param year
+     * @param month
+     * @param day
+     * @param isIntercalation
+     * @return
+     */
+    public static int encodeLunar(int year, int month, int day, boolean isIntercalation) {
+        return (year << YEAR_SHIFT) | (month << MONTH_SHIFT) | (isIntercalation ? LUNAR_INTERCALATION : 0) | day;
+    }
+
+    /**
+     * 
+     * @param packedLunar
+     * @return
+     */
+    public static int getLunarYear(int packedLunar) {
+        return packedLunar >>> YEAR_SHIFT;
+    }
+
+    /**
+     * 
+     * @param packedLunar
+     * @return
+     */
+    public static int getLunarMonth(int packedLunar) {
+        return (packedLunar >> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+    /**
+     * 
+     * @param packedLunar
+     * @return
+     */
+    public static int getLunarDay(int packedLunar) {
+        return packedLunar & LUNAR_DAY_MASK;
+    }
+
+    /**
+     * 
+     * @param packedLunar
+     * @return
+     */
+    public static boolean isIntercalation(int packedLunar) {
+        return (packedLunar & LUNAR_INTERCALATION) != 0;
+    }
+
+    /**
+     * 
+     * @param year
+     * @param month
+     * @param day
+     * @return
+     */
+    public static int encodeSolar(int year, int month, int day) {
+        return (year << YEAR_SHIFT) | (month << MONTH_SHIFT) | day;
+    }
+
+    /**
+     * 
+     * @param packedSolar
+     * @return
+     */
+    public static int getSolarYear(int packedSolar) {
+        return packedSolar >>> YEAR_SHIFT;
+    }
+
+    /**
+     * 
+     * @param packedSolar
+     * @return
+     */
+    public static int getSolarMonth(int packedSolar) {
+        return (packedSolar >> MONTH_SHIFT) & MONTH_MASK;
+    }
+
+    /**
+     * 
+     * @param packedSolar
+     * @return
+     */
+    public static int getSolarDay(int packedSolar) {
+        return packedSolar & SOLAR_DAY_MASK;
+    }
+
+    /**
+     * Compares two packed dates of the same calendar chronologically.
+     * 
+     * @param packed1
+     * @param packed2
+     * @return
+     */
+    public static int compare(int packed1, int packed2) {
+        return Integer.compare(packed1, packed2);
+    }
+
+    /**
+     * 
+     * @param packedLunar
+     * @param packedSolar
+     * @return
+     */
+    public static long encodePair(int packedLunar, int packedSolar) {
+        return ((long) packedLunar << 32) | (packedSolar & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 
+     * @param pair
+     * @return
+     */
+    public static int getLunar(long pair) {
+        return (int) (pair >>> 32);
+    }
+
+    /**
+     * 
+     * @param pair
+     * @return
+     */
+    public static int getSolar(long pair) {
+        return (int) pair;
+    }
+
+    /**
+     * Converts a packed solar date to a packed lunar date.
+     * 
+     * @param packedSolar
+     * @return the packed lunar date, or {@link #INVALID} if the solar date is not valid
+     */
+    public static int toLunar(int packedSolar) {
+        int year = getSolarYear(packedSolar);
+        int month = getSolarMonth(packedSolar);
+        int day = getSolarDay(packedSolar);
+        if (!KoreanLunarCalendar.checkValidDate(false, false, year, month, day)) {
+            return INVALID;
+        }
+        return KoreanLunarCalendar.getPackedLunarDateByAbsDays(KoreanLunarCalendar.getSolarAbsDays(year, month, day));
+    }
+
+    /**
+     * Converts a packed lunar date to a packed solar date. As with
+     * {@link KoreanLunarCalendar#toSolarDate(int, int, int, boolean)}, the intercalation flag is ignored for a month
+     * without intercalation.
+     * 
+     * @param packedLunar
+     * @return the packed solar date, or {@link #INVALID} if the lunar date is not valid
+     */
+    public static int toSolar(int packedLunar) {
+        int year = getLunarYear(packedLunar);
+        int month = getLunarMonth(packedLunar);
+        int day = getLunarDay(packedLunar);
+        boolean isIntercalation = isIntercalation(packedLunar);
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, year, month, day)) {
+            return INVALID;
+        }
+        return KoreanLunarCalendar.getPackedSolarDateByAbsDays(
+                KoreanLunarCalendar.getLunarAbsDays(year, month, day, isIntercalation));
+    }
+
+    /**
+     * Converts a packed solar date to a lunar/solar pair.
+     * 
+     * @param packedSolar
+     * @return the pair, or {@link #INVALID} if the solar date is not valid
+     */
+    public static long solarToPair(int packedSolar) {
+        int packedLunar = toLunar(packedSolar);
+        return packedLunar == INVALID ? INVALID : encodePair(packedLunar, packedSolar);
+    }
+
+    /**
+     * Converts a packed lunar date to a lunar/solar pair, the lunar value is normalized like
+     * {@link #toSolar(int)}.
+     * 
+     * @param packedLunar
+     * @return the pair, or {@link #INVALID} if the lunar date is not valid
+     */
+    public static long lunarToPair(int packedLunar) {
+        int packedSolar = toSolar(packedLunar);
+        return packedSolar == INVALID ? INVALID : encodePair(toLunar(packedSolar), packedSolar);
+    }
+
+    /**
+     * Converts packed solar dates to packed lunar dates in place of {@code packedLunars}.
+     * 
+     * @param packedSolars
+     * @param packedLunars
+     */
+    public static void toLunar(int[] packedSolars, int[] packedLunars) {
+        toLunar(packedSolars, packedLunars, 0, packedSolars.length);
+    }
+
+    /**
+     * 
+     * @param packedSolars
+     * @param packedLunars
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void toLunar(int[] packedSolars, int[] packedLunars, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(packedSolars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(packedLunars.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            packedLunars[i] = toLunar(packedSolars[i]);
+        }
+    }
+
+    /**
+     * Converts packed lunar dates to packed solar dates in place of {@code packedSolars}.
+     * 
+     * @param packedLunars
+     * @param packedSolars
+     */
+    public static void toSolar(int[] packedLunars, int[] packedSolars) {
+        toSolar(packedLunars, packedSolars, 0, packedLunars.length);
+    }
+
+    /**
+     * 
+     * @param packedLunars
+     * @param packedSolars
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void toSolar(int[] packedLunars, int[] packedSolars, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(packedLunars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(packedSolars.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            packedSolars[i] = toSolar(packedLunars[i]);
+        }
+    }
+
+    private static int getLunarAbsDays(int packedLunar) {
+        int year = getLunarYear(packedLunar);
+        int month = getLunarMonth(packedLunar);
+        int day = getLunarDay(packedLunar);
+        boolean isIntercalation = isIntercalation(packedLunar);
+        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, year, month, day)) {
+            return 0;
+        }
+        return KoreanLunarCalendar.getLunarAbsDays(year, month, day, isIntercalation);
+    }
+
+    private static int getCheckedLunarAbsDays(int packedLunar) {
+        int absDays = getLunarAbsDays(packedLunar);
+        if (absDays == 0) {
+            throw new IllegalArgumentException("Invalid lunar date : " + packedLunar);
+        }
+        return absDays;
+    }
+
+    private static int getCheckedLunarMonthIndex(int packedLunar) {
+        getCheckedLunarAbsDays(packedLunar);
+        return KoreanLunarCalendar.getLunarMonthIndex(getLunarYear(packedLunar), getLunarMonth(packedLunar),
+                isIntercalation(packedLunar));
+    }
+
+    /**
+     * Adds days to a lunar date, e.g. 48 days after a death for the 49th day rite counted from day 1.
+     * 
+     * @param packedLunar
+     * @param days
+     *            negative to go back
+     * @return the packed lunar date, or {@link #INVALID} if the date is not valid or the result is out of range
+     */
+    public static int plusDays(int packedLunar, int days) {
+        int absDays = getLunarAbsDays(packedLunar);
+        if (absDays == 0) {
+            return INVALID;
+        }
+        long result = (long) absDays + days;
+        if (result < 1 || result > KoreanLunarCalendar.getMaxAbsDays()) {
+            return INVALID;
+        }
+        return KoreanLunarCalendar.getPackedLunarDateByAbsDays((int) result);
+    }
+
+    /**
+     * Adds lunar months in calendar order like {@link KoreanLunarDate#plusMonths(long)} : an intercalation month
+     * counts as a month and the day is clamped to the length of the resulting month.
+     * 
+     * @param packedLunar
+     * @param months
+     *            negative to go back
+     * @return the packed lunar date, or {@link #INVALID} if the date is not valid or the result is out of range
+     */
+    public static int plusMonths(int packedLunar, int months) {
+        if (getLunarAbsDays(packedLunar) == 0) {
+            return INVALID;
+        }
+        long monthIndex = (long) KoreanLunarCalendar.getLunarMonthIndex(getLunarYear(packedLunar),
+                getLunarMonth(packedLunar), isIntercalation(packedLunar)) + months;
+        if (monthIndex < 0 || monthIndex >= KoreanLunarCalendar.getLunarMonthCount()) {
+            return INVALID;
+        }
+
+        // the month start holds day 0 of the month
+        int monthStart = KoreanLunarCalendar.getLunarMonthStartPacked((int) monthIndex);
+        int day = Math.min(getLunarDay(packedLunar), KoreanLunarCalendar.getLunarDays(getLunarYear(monthStart),
+                getLunarMonth(monthStart), isIntercalation(monthStart)));
+        if (KoreanLunarCalendar.getLunarMonthStartAbsDays((int) monthIndex) + day - 1 > KoreanLunarCalendar
+                .getMaxAbsDays()) {
+            return INVALID;
+        }
+        return monthStart + day;
+    }
+
+    /**
+     * 
+     * @param fromPackedLunar
+     * @param toPackedLunar
+     * @return the number of days from the first date to the second, negative if the second is earlier
+     * @throws IllegalArgumentException
+     *             if a date is not valid
+     */
+    public static int daysBetween(int fromPackedLunar, int toPackedLunar) {
+        return getCheckedLunarAbsDays(toPackedLunar) - getCheckedLunarAbsDays(fromPackedLunar);
+    }
+
+    /**
+     * Counts complete lunar months like {@link KoreanLunarDate#until(java.time.temporal.Temporal,
+     * java.time.temporal.TemporalUnit)} with {@code MONTHS}, intercalation months included.
+     * 
+     * @param fromPackedLunar
+     * @param toPackedLunar
+     * @return the number of months, negative if the second date is earlier
+     * @throws IllegalArgumentException
+     *             if a date is not valid
+     */
+    public static int monthsBetween(int fromPackedLunar, int toPackedLunar) {
+        int from = getCheckedLunarMonthIndex(fromPackedLunar) * 32 + getLunarDay(fromPackedLunar);
+        int to = getCheckedLunarMonthIndex(toPackedLunar) * 32 + getLunarDay(toPackedLunar);
+        return (to - from) / 32;
+    }
+
+    /**
+     * Adds the same number of days to many lunar dates, see {@link #plusDays(int, int)}.
+     * 
+     * @param packedLunars
+     * @param days
+     * @param results
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void plusDays(int[] packedLunars, int days, int[] results, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(packedLunars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(results.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            results[i] = plusDays(packedLunars[i], days);
+        }
+    }
+
+    /**
+     * Adds the same number of months to many lunar dates, see {@link #plusMonths(int, int)}.
+     * 
+     * @param packedLunars
+     * @param months
+     * @param results
+     * @param fromIndex
+     * @param toIndex
+     */
+    public static void plusMonths(int[] packedLunars, int months, int[] results, int fromIndex, int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(packedLunars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(results.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            results[i] = plusMonths(packedLunars[i], months);
+        }
+    }
+
+    /**
+     * Days between pairs of lunar dates, see {@link #daysBetween(int, int)}.
+     * 
+     * @param fromPackedLunars
+     * @param toPackedLunars
+     * @param results
+     * @param fromIndex
+     * @param toIndex
+     * @throws IllegalArgumentException
+     *             if a date is not valid, the results before it are written
+     */
+    public static void daysBetween(int[] fromPackedLunars, int[] toPackedLunars, int[] results, int fromIndex,
+            int toIndex) {
+        KoreanLunarCalendar.checkBulkRange(fromPackedLunars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(toPackedLunars.length, fromIndex, toIndex);
+        KoreanLunarCalendar.checkBulkRange(results.length, fromIndex, toIndex);
+        for (int i = fromIndex; i < toIndex; i++) {
+            results[i] = daysBetween(fromPackedLunars[i], toPackedLunars[i]);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2018 usingsky(usingsky@gmail.com)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.github.usingsky.calendar;
+
+/**
+ * Immutable solar date returned by {@link KoreanLunarCalendar#toSolarDate(int, int, int, boolean)}.
+ * Instances hold no reference to shared state and may be freely shared between threads.
+ */
+public final class SolarDate {
+
+    private final int year;
+    private final int month;
+    private final int day;
+
+    SolarDate(int year, int month, int day) {
+        this.year = year;
+        this.month = month;
+        this.day = day;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getYear() {
+        return year;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getMonth() {
+        return month;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public int getDay() {
+        return day;
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public LunarDate toLunarDate() {
+        return KoreanLunarCalendar.toLunarDate(year, month, day);
+    }
+
+    /**
+     * 
+     * @return
+     */
+    public String getIsoFormat() {
+        return KoreanLunarFormatter.getIsoFormat(year, month, day, false);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof SolarDate)) {
+            return false;
+        }
+        SolarDate other = (SolarDate) obj;
+        return year == other.year && month == other.month && day == other.day;
+    }
+
+    @Override
+    public int hashCode() {
+        return (year * 100 + month) * 100 + day;
+    }
+
+    @Override
+    public String toString() {
+        return getIsoFormat();
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class ConversionCacheTest {
+
+    @Test
+    public void testStatistics() {
+        ConversionCache cache = new ConversionCache(1000);
+        assertEquals(cache.getCapacity(), 1024);
+
+        LunarDate lunarDate = cache.toLunarDate(2017, 6, 24);
+        assertEquals(lunarDate, KoreanLunarCalendar.toLunarDate(2017, 6, 24));
+        assertSame(cache.toLunarDate(2017, 6, 24), lunarDate);
+        assertEquals(cache.getMissCount(), 1L);
+        assertEquals(cache.getHitCount(), 1L);
+
+        assertEquals(cache.toSolar(PackedDate.encodeLunar(2017, 5, 1, true)), PackedDate.encodeSolar(2017, 6, 24));
+        assertEquals(cache.getGapjaString(2017, 5, 1, true), lunarDate.getGapjaString());
+        assertEquals(cache.getChineseGapJaString(2017, 5, 1, true), lunarDate.getChineseGapJaString());
+
+        assertNull(cache.toLunarDate(1582, 10, 10));
+        assertEquals(cache.toSolar(PackedDate.encodeLunar(2050, 12, 1, false)), PackedDate.INVALID);
+        assertEquals(cache.getMissCount(), 4L);
+
+        cache.resetStatistics();
+        assertEquals(cache.getHitRate(), 0, 0);
+    }
+
+    @Test
+    public void testEviction() {
+        ConversionCache cache = new ConversionCache(1);
+        cache.toLunarDate(2017, 6, 24);
+        cache.toLunarDate(2017, 6, 25);
+        cache.toLunarDate(2017, 6, 25);
+        assertEquals(cache.getMissCount(), 2L);
+        assertEquals(cache.getHitCount(), 1L);
+        assertEquals(cache.getEvictionCount(), 1L);
+
+        cache.clear();
+        cache.toLunarDate(2017, 6, 25);
+        assertEquals(cache.getMissCount(), 3L);
+        assertEquals(cache.getEvictionCount(), 1L);
+    }
+
+    @Test
+    public void testCalendarInstance() {
+        KoreanLunarCalendar calendar = KoreanLunarCalendar.getInstance();
+        ConversionCache cache = new ConversionCache(64);
+        calendar.setConversionCache(cache);
+        try {
+            for (int i = 0; i < 2; i++) {
+                calendar.setSolarDate(2017, 6, 24);
+                assertEquals(calendar.getLunarIsoFormat(), "2017-05-01 Intercalation");
+                assertEquals(calendar.getChineseGapJaString(), "\u4E01\u9149\u5E74 \u4E19\u5348\u6708 \u58EC\u5348\u65E5 (\u958F\u6708)");
+
+                calendar.setLunarDate(1956, 1, 21, false);
+                assertEquals(calendar.getSolarIsoFormat(), "1956-03-03");
+            }
+            assertEquals(cache.getMissCount(), 3L);
+            assertEquals(cache.getHitCount(), 3L);
+        } finally {
+            calendar.setConversionCache(null);
+        }
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final ConversionCache cache = new ConversionCache(256);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+            for (int t = 0; t < 4; t++) {
+                futures.add(executor.submit(new Callable<Integer>() {
+                    @Override
+                    public Integer call() {
+                        int mismatches = 0;
+                        LunarDateCursor cursor = KoreanLunarCalendar.cursor(20150101, 20201231);
+                        while (cursor.next()) {
+                            LunarDate lunarDate = cache.toLunarDate(cursor.getSolarYear(), cursor.getSolarMonth(),
+                                    cursor.getSolarDay());
+                            if (!lunarDate.equals(cursor.getLunarDate())) {
+                                mismatches++;
+                            }
+                        }
+                        return mismatches;
+                    }
+                }));
+            }
+            for (Future<Integer> future : futures) {
+                assertEquals(future.get().intValue(), 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(cache.getHitCount() + cache.getMissCount(), 4L * 2192);
+    }
+}
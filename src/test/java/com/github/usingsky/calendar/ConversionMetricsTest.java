@@ -0,0 +1,120 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.Test;
+
+import com.github.usingsky.calendar.ConversionMetrics.Operation;
+import com.github.usingsky.calendar.ConversionMetrics.Outcome;
+
+public class ConversionMetricsTest {
+
+    @Test
+    public void testBuckets() {
+        int previous = -1;
+        for (long nanos = 0; nanos < 100000; nanos++) {
+            int bucket = ConversionMetrics.getBucket(nanos);
+            assertTrue(bucket == previous || bucket == previous + 1);
+            assertTrue(nanos <= ConversionMetrics.getBucketUpperBound(bucket));
+            // 4 buckets per power of two
+            assertTrue(ConversionMetrics.getBucketUpperBound(bucket) <= nanos + nanos / 4);
+            previous = bucket;
+        }
+        assertEquals(ConversionMetrics.getBucketUpperBound(ConversionMetrics.getBucket(Long.MAX_VALUE)), Long.MAX_VALUE);
+    }
+
+    @Test
+    public void testRecording() {
+        if (!ConversionMetrics.isEnabled()) {
+            KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+            assertEquals(ConversionMetrics.getCount(Operation.SOLAR_TO_LUNAR, Outcome.VALID), 0L);
+            return;
+        }
+
+        final AtomicInteger calls = new AtomicInteger();
+        ConversionListener listener = new ConversionListener() {
+            @Override
+            public void onConversion(Operation operation, Outcome outcome, long nanos) {
+                calls.incrementAndGet();
+            }
+        };
+        ConversionListener failing = new ConversionListener() {
+            @Override
+            public void onConversion(Operation operation, Outcome outcome, long nanos) {
+                throw new IllegalStateException();
+            }
+        };
+
+        ConversionMetrics.reset();
+        ConversionMetrics.addListener(listener);
+        ConversionMetrics.addListener(failing);
+        try {
+            KoreanLunarCalendar calendar = KoreanLunarCalendar.getInstance();
+            assertTrue(calendar.setSolarDate(2017, 6, 24));
+            assertFalse(calendar.setSolarDate(2017, 6, 31));
+            assertTrue(calendar.setLunarDate(1956, 1, 21, false));
+            calendar.getGapjaString();
+            calendar.getSolarIsoFormat();
+            KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+
+            ConversionCache cache = new ConversionCache(16);
+            cache.toSolarDate(2017, 5, 1, true);
+            cache.toSolarDate(2017, 5, 1, true);
+            cache.getGapjaString(2017, 5, 1, true);
+        } finally {
+            assertTrue(ConversionMetrics.removeListener(listener));
+            assertTrue(ConversionMetrics.removeListener(failing));
+        }
+        assertFalse(ConversionMetrics.removeListener(listener));
+
+        assertEquals(ConversionMetrics.getCount(Operation.SOLAR_TO_LUNAR, Outcome.VALID), 2L);
+        assertEquals(ConversionMetrics.getCount(Operation.SOLAR_TO_LUNAR, Outcome.INVALID), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.LUNAR_TO_SOLAR, Outcome.VALID), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.LUNAR_TO_SOLAR, Outcome.CACHE_MISS), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.LUNAR_TO_SOLAR, Outcome.CACHE_HIT), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.GAPJA, Outcome.VALID), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.GAPJA, Outcome.CACHE_MISS), 1L);
+        assertEquals(ConversionMetrics.getCount(Operation.FORMAT, Outcome.VALID), 1L);
+        assertEquals(calls.get(), 9);
+        assertEquals(ConversionMetrics.getListenerErrorCount(), 9L);
+
+        long median = ConversionMetrics.getLatencyPercentile(Operation.SOLAR_TO_LUNAR, Outcome.VALID, 50);
+        assertTrue(median > 0);
+        assertTrue(median <= ConversionMetrics.getLatencyPercentile(Operation.SOLAR_TO_LUNAR, Outcome.VALID, 100));
+        assertEquals(ConversionMetrics.getLatencyPercentile(Operation.FORMAT, Outcome.CACHE_HIT, 50), 0L);
+
+        ConversionMetrics.reset();
+        assertEquals(ConversionMetrics.getCount(Operation.SOLAR_TO_LUNAR, Outcome.VALID), 0L);
+        assertEquals(ConversionMetrics.getTotalNanos(Operation.SOLAR_TO_LUNAR, Outcome.VALID), 0L);
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(ConversionMetrics.OBJECT_NAME);
+
+        assertTrue(ConversionMetrics.registerMBean());
+        try {
+            assertFalse(ConversionMetrics.registerMBean());
+            KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+
+            assertEquals(server.getAttribute(name, "Enabled"), ConversionMetrics.isEnabled());
+            TabularData counts = (TabularData) server.getAttribute(name, "Counts");
+            assertEquals(counts.isEmpty(), !ConversionMetrics.isEnabled());
+            server.invoke(name, "reset", null, null);
+        } finally {
+            assertTrue(ConversionMetrics.unregisterMBean());
+        }
+        assertFalse(server.isRegistered(name));
+    }
+}
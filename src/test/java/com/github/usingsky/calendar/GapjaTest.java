@@ -0,0 +1,66 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.Test;
+
+public class GapjaTest {
+
+    @Test
+    public void testSolarDate() {
+        // 2017-06-24 : jeongyu year, byeongo month, imo day
+        int gapja = Gapja.ofSolarDate(2017, 6, 24);
+        assertEquals(KoreanLunarFormatter.getGapja(Gapja.getYearCycle(gapja)), "\uC815\uC720");
+        assertEquals(KoreanLunarFormatter.getGapja(Gapja.getMonthCycle(gapja)), "\uBCD1\uC624");
+        assertEquals(KoreanLunarFormatter.getGapja(Gapja.getDayCycle(gapja)), "\uC784\uC624");
+
+        assertEquals(Gapja.ofLunarDate(2017, 5, 1, true), gapja);
+        assertEquals(Gapja.ofEpochDay(LocalDate.of(2017, 6, 24).toEpochDay()), gapja);
+        assertEquals(Gapja.getDayCycle(2017, 6, 24), Gapja.getDayCycle(gapja));
+        assertEquals(Gapja.getDayCycleOfEpochDay(LocalDate.of(2017, 6, 24).toEpochDay()), Gapja.getDayCycle(gapja));
+
+        assertEquals(Gapja.ofSolarDate(1582, 10, 10), Gapja.INVALID);
+        assertEquals(Gapja.ofEpochDay(LocalDate.of(2051, 1, 1).toEpochDay()), Gapja.INVALID);
+    }
+
+    @Test
+    public void testCycle() {
+        for (int cycle = 0; cycle < 60; cycle++) {
+            assertEquals(Gapja.getCycle(Gapja.getCheongan(cycle), Gapja.getGanji(cycle)), cycle);
+        }
+        assertEquals(Gapja.getCycle(0, 1), Gapja.INVALID);
+    }
+
+    @Test
+    public void testBulk() {
+        int[] solarDates = { 20170624, 19560303, 15821010 };
+        int[] gapjas = new int[solarDates.length];
+        int[] dayCycles = new int[solarDates.length];
+        Gapja.ofSolarDates(solarDates, gapjas);
+        Gapja.getDayCycles(solarDates, dayCycles);
+
+        for (int i = 0; i < solarDates.length; i++) {
+            LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(solarDates[i] / 10000, solarDates[i] / 100 % 100,
+                    solarDates[i] % 100);
+            if (lunarDate == null) {
+                assertEquals(gapjas[i], Gapja.INVALID);
+                assertEquals(dayCycles[i], Gapja.INVALID);
+                continue;
+            }
+            String expected = KoreanLunarFormatter.getGapja(Gapja.getYearCycle(gapjas[i])) + "\uB144 "
+                    + KoreanLunarFormatter.getGapja(Gapja.getMonthCycle(gapjas[i])) + "\uC6D4 "
+                    + KoreanLunarFormatter.getGapja(Gapja.getDayCycle(gapjas[i])) + "\uC77C";
+            assertEquals(lunarDate.getGapjaString().substring(0, expected.length()), expected);
+            assertEquals(dayCycles[i], Gapja.getDayCycle(gapjas[i]));
+        }
+
+        // the day pillar of an epoch day also works outside the supported range
+        long[] epochDays = { LocalDate.of(2017, 6, 24).toEpochDay(), LocalDate.of(2017, 6, 24).toEpochDay() + 60 * 1000 };
+        int[] epochDayCycles = new int[epochDays.length];
+        Gapja.getDayCyclesOfEpochDays(epochDays, epochDayCycles);
+        assertEquals(epochDayCycles[0], dayCycles[0]);
+        assertEquals(epochDayCycles[1], dayCycles[0]);
+    }
+}
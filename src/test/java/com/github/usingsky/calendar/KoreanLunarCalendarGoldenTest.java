@@ -0,0 +1,289 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks every supported day against the golden data in korean-lunar-golden.txt, which was generated
+ * with the original implementation.
+ */
+public class KoreanLunarCalendarGoldenTest {
+
+    private static final int SOLAR_GAP_START = 15821005;
+    private static final int SOLAR_GAP_END = 15821014;
+
+    private static String solarDigest;
+    private static String lunarDigest;
+
+    // every day of the golden timeline, including the 1582 gap
+    private static int[] solarDates;
+    private static int[] lunarDates;
+    private static boolean[] intercalations;
+
+    @BeforeClass
+    public static void loadGolden() throws IOException {
+        List<String[]> years = new ArrayList<String[]>();
+        BufferedReader reader = new BufferedReader(new InputStreamReader(
+                KoreanLunarCalendarGoldenTest.class.getResourceAsStream("/korean-lunar-golden.txt"),
+                StandardCharsets.UTF_8));
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split(" ");
+                if (fields[0].equals("solar-sha256")) {
+                    solarDigest = fields[1];
+                } else if (fields[0].equals("lunar-sha256")) {
+                    lunarDigest = fields[1];
+                } else {
+                    years.add(fields);
+                }
+            }
+        } finally {
+            reader.close();
+        }
+
+        int capacity = years.size() * 385;
+        solarDates = new int[capacity];
+        lunarDates = new int[capacity];
+        intercalations = new boolean[capacity];
+
+        int count = 0;
+        LocalDate solar = LocalDate.of(1000, 2, 13);
+        for (String[] fields : years) {
+            int year = Integer.parseInt(fields[0]);
+            int intercalationMonth = Integer.parseInt(fields[2]);
+            assertEquals(year + " new year", Integer.parseInt(fields[1]), toDateValue(solar));
+
+            int month = 0;
+            boolean isIntercalation = false;
+            for (String days : fields[3].split(",")) {
+                // the intercalation month follows the regular month of the same number
+                if (month > 0 && month == intercalationMonth && !isIntercalation) {
+                    isIntercalation = true;
+                } else {
+                    month++;
+                    isIntercalation = false;
+                }
+                for (int day = 1; day <= Integer.parseInt(days); day++) {
+                    solarDates[count] = toDateValue(solar);
+                    lunarDates[count] = year * 10000 + month * 100 + day;
+                    intercalations[count] = isIntercalation;
+                    count++;
+                    solar = solar.plusDays(1);
+                }
+            }
+        }
+        assertEquals(toDateValue(solar.minusDays(1)), 20501231);
+
+        solarDates = Arrays.copyOf(solarDates, count);
+        lunarDates = Arrays.copyOf(lunarDates, count);
+        intercalations = Arrays.copyOf(intercalations, count);
+    }
+
+    private static int toDateValue(LocalDate date) {
+        return date.getYear() * 10000 + date.getMonthValue() * 100 + date.getDayOfMonth();
+    }
+
+    private static boolean isSolarGap(int solarDate) {
+        return solarDate >= SOLAR_GAP_START && solarDate <= SOLAR_GAP_END;
+    }
+
+    private static String hex(byte[] bytes) {
+        StringBuilder sb = new StringBuilder();
+        for (byte b : bytes) {
+            sb.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+        }
+        return sb.toString();
+    }
+
+    @Test
+    public void testSolarToLunar() {
+        checkSolarToLunar();
+    }
+
+    @Test
+    public void testDenseTable() {
+        boolean enabled = KoreanLunarCalendar.isDenseTableEnabled();
+        KoreanLunarCalendar.setDenseTableEnabled(true);
+        try {
+            checkSolarToLunar();
+            checkLunarToSolar();
+        } finally {
+            KoreanLunarCalendar.setDenseTableEnabled(enabled);
+        }
+    }
+
+    private void checkSolarToLunar() {
+        for (int i = 0; i < solarDates.length; i++) {
+            int year = solarDates[i] / 10000;
+            int month = solarDates[i] / 100 % 100;
+            int day = solarDates[i] % 100;
+            LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(year, month, day);
+            if (isSolarGap(solarDates[i])) {
+                assertNull(lunarDate);
+                continue;
+            }
+
+            LunarDate expected = new LunarDate(lunarDates[i] / 10000, lunarDates[i] / 100 % 100, lunarDates[i] % 100,
+                    intercalations[i]);
+            assertEquals(lunarDate, expected);
+            assertEquals(lunarDate.toSolarDate(), new SolarDate(year, month, day));
+            assertEquals(PackedDate.toLunar(PackedDate.encodeSolar(year, month, day)), PackedDate.encodeLunar(
+                    expected.getYear(), expected.getMonth(), expected.getDay(), expected.isIntercalation()));
+        }
+    }
+
+    @Test
+    public void testLunarToSolar() {
+        checkLunarToSolar();
+    }
+
+    private void checkLunarToSolar() {
+        for (int i = 0; i < lunarDates.length; i++) {
+            SolarDate solarDate = KoreanLunarCalendar.toSolarDate(lunarDates[i] / 10000, lunarDates[i] / 100 % 100,
+                    lunarDates[i] % 100, intercalations[i]);
+            assertEquals(solarDate.getYear() * 10000 + solarDate.getMonth() * 100 + solarDate.getDay(), solarDates[i]);
+            if (!isSolarGap(solarDates[i])) {
+                LunarDate lunarDate = solarDate.toLunarDate();
+                assertEquals(lunarDate.getYear() * 10000 + lunarDate.getMonth() * 100 + lunarDate.getDay(),
+                        lunarDates[i]);
+                assertEquals(lunarDate.isIntercalation(), intercalations[i]);
+            }
+        }
+    }
+
+    @Test
+    public void testGapjaCycle() {
+        int previousDay = -1;
+        int previousMonth = -1;
+        int previousYear = -1;
+        for (int i = 0; i < lunarDates.length; i++) {
+            int year = lunarDates[i] / 10000;
+            int month = lunarDates[i] / 100 % 100;
+            int day = lunarDates[i] % 100;
+            int absDays = KoreanLunarCalendar.getLunarAbsDays(year, month, day, intercalations[i]);
+
+            int dayCycle = KoreanLunarCalendar.getGapjaDayCycle(absDays);
+            int monthCycle = KoreanLunarCalendar.getGapjaMonthCycle(year, month);
+            int yearCycle = KoreanLunarCalendar.getGapjaYearCycle(year);
+            if (i > 0) {
+                assertEquals(dayCycle, (previousDay + 1) % 60);
+                if (day == 1 && !intercalations[i]) {
+                    assertEquals(monthCycle, (previousMonth + 1) % 60);
+                } else {
+                    assertEquals(monthCycle, previousMonth);
+                }
+                assertEquals(yearCycle, month == 1 && day == 1 && !intercalations[i] ? (previousYear + 1) % 60 : previousYear);
+            }
+            int gapja = Gapja.pack(yearCycle, monthCycle, dayCycle);
+            assertEquals(Gapja.ofLunarDate(year, month, day, intercalations[i]), gapja);
+            if (!isSolarGap(solarDates[i])) {
+                assertEquals(Gapja.ofSolarDate(solarDates[i] / 10000, solarDates[i] / 100 % 100, solarDates[i] % 100), gapja);
+            }
+            previousDay = dayCycle;
+            previousMonth = monthCycle;
+            previousYear = yearCycle;
+        }
+    }
+
+    @Test
+    public void testBulkConversion() {
+        int[] lunars = new int[solarDates.length];
+        boolean[] leaps = new boolean[solarDates.length];
+        int[] solars = new int[solarDates.length];
+
+        KoreanLunarCalendar.solarToLunar(solarDates, lunars, leaps);
+        KoreanLunarCalendar.lunarToSolar(lunarDates, intercalations, solars);
+        checkBulk(lunars, leaps, solars);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            KoreanLunarCalendar.parallelSolarToLunar(solarDates, lunars, leaps, pool);
+            KoreanLunarCalendar.parallelLunarToSolar(lunarDates, intercalations, solars, pool);
+        } finally {
+            pool.shutdown();
+        }
+        checkBulk(lunars, leaps, solars);
+    }
+
+    private void checkBulk(int[] lunars, boolean[] leaps, int[] solars) {
+        for (int i = 0; i < solarDates.length; i++) {
+            if (isSolarGap(solarDates[i])) {
+                assertEquals(lunars[i], KoreanLunarCalendar.INVALID_DATE);
+            } else {
+                assertEquals(lunars[i], lunarDates[i]);
+                assertEquals(leaps[i], intercalations[i]);
+            }
+            assertEquals(solars[i], solarDates[i]);
+        }
+    }
+
+    @Test
+    public void testSolarOutput() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        char[] iso = new char[KoreanLunarFormatter.MAX_ISO_LENGTH];
+        int count = 0;
+        for (int year = 1000; year <= 2050; year++) {
+            for (int month = 1; month <= 12; month++) {
+                for (int day = 1; day <= 41; day++) {
+                    if (!KoreanLunarCalendar.checkValidDate(false, false, year, month, day)) {
+                        continue;
+                    }
+                    LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(year, month, day);
+                    String line = new String(iso, 0, KoreanLunarFormatter.formatIsoDate(year, month, day, false, iso, 0))
+                            + " " + lunarDate.getIsoFormat() + "|" + lunarDate.getGapjaString() + "|"
+                            + lunarDate.getChineseGapJaString() + "\n";
+                    digest.update(line.getBytes(StandardCharsets.UTF_8));
+                    count++;
+                }
+            }
+        }
+        // October 1582 skips the 10 days of the gap and accepts 10 extra days up to 41
+        assertEquals(count, solarDates.length);
+        assertEquals(hex(digest.digest()), solarDigest);
+    }
+
+    @Test
+    public void testLunarOutput() throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        int count = 0;
+        for (int year = 1000; year <= 2050; year++) {
+            int intercalationMonth = KoreanLunarCalendar.getLunarIntercalationMonth(KoreanLunarCalendar.getLunarData(year));
+            for (int month = 1; month <= 12; month++) {
+                for (int leap = 0; leap < (month == intercalationMonth ? 2 : 1); leap++) {
+                    boolean isIntercalation = leap == 1;
+                    for (int day = 1; day <= 30; day++) {
+                        if (!KoreanLunarCalendar.checkValidDate(true, isIntercalation, year, month, day)) {
+                            continue;
+                        }
+                        SolarDate solarDate = KoreanLunarCalendar.toSolarDate(year, month, day, isIntercalation);
+                        LunarDate lunarDate = new LunarDate(year, month, day, isIntercalation);
+                        String line = lunarDate.getIsoFormat() + " " + solarDate.getIsoFormat() + "|"
+                                + lunarDate.getGapjaString() + "|" + lunarDate.getChineseGapJaString() + "\n";
+                        digest.update(line.getBytes(StandardCharsets.UTF_8));
+                        count++;
+                    }
+                }
+            }
+        }
+        assertEquals(count, lunarDates.length);
+        assertEquals(hex(digest.digest()), lunarDigest);
+    }
+}
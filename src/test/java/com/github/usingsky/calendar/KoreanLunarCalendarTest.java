@@ -3,6 +3,12 @@ package com.github.usingsky.calendar;
 import com.github.usingsky.calendar.KoreanLunarCalendar;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.assertNull;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.junit.Test;
 
@@ -23,5 +29,129 @@ public class KoreanLunarCalendarTest {
         
     }
 
+    @Test
+    public void testToLunarDate() {
+        LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+
+        assertEquals(lunarDate.getIsoFormat(), "2017-05-01 Intercalation");
+        assertEquals(lunarDate.getGapjaString(), "\uC815\uC720\uB144 \uBCD1\uC624\uC6D4 \uC784\uC624\uC77C (\uC724\uC6D4)");
+        assertEquals(lunarDate.getChineseGapJaString(), "\u4E01\u9149\u5E74 \u4E19\u5348\u6708 \u58EC\u5348\u65E5 (\u958F\u6708)");
+        assertEquals(lunarDate.toSolarDate().getIsoFormat(), "2017-06-24");
+    }
+
+    @Test
+    public void testToSolarDate() {
+        SolarDate solarDate = KoreanLunarCalendar.toSolarDate(1956, 1, 21, false);
+
+        assertEquals(solarDate.getIsoFormat(), "1956-03-03");
+        assertEquals(solarDate.toLunarDate().getGapjaString(), "\uBCD1\uC2E0\uB144 \uACBD\uC778\uC6D4 \uAE30\uC0AC\uC77C");
+        assertNull(KoreanLunarCalendar.toSolarDate(99, 1, 1, false));
+        assertNull(KoreanLunarCalendar.toLunarDate(2051, 1, 1));
+    }
+
+    @Test
+    public void testDenseTable() {
+        boolean enabled = KoreanLunarCalendar.isDenseTableEnabled();
+        try {
+            for (int year = 1000; year <= 2050; year += 15) {
+                for (int month = 1; month <= 12; month++) {
+                    KoreanLunarCalendar.setDenseTableEnabled(false);
+                    LunarDate compact = KoreanLunarCalendar.toLunarDate(year, month, 28);
+                    KoreanLunarCalendar.setDenseTableEnabled(true);
+                    LunarDate dense = KoreanLunarCalendar.toLunarDate(year, month, 28);
+
+                    assertEquals(compact, dense);
+                    if (dense != null) {
+                        assertEquals(dense.toSolarDate().getIsoFormat(), String.format("%04d-%02d-28", year, month));
+                    }
+                }
+            }
+        } finally {
+            KoreanLunarCalendar.setDenseTableEnabled(enabled);
+        }
+    }
+
+    @Test
+    public void testBulkConversion() {
+        int[] solarDates = { 20170624, 19560303, 20510101, 20170625, 15821010 };
+        int[] lunarDates = new int[solarDates.length];
+        boolean[] intercalations = new boolean[solarDates.length];
+        KoreanLunarCalendar.solarToLunar(solarDates, lunarDates, intercalations);
+
+        assertEquals(lunarDates[0], 20170501);
+        assertEquals(intercalations[0], true);
+        assertEquals(lunarDates[1], 19560121);
+        assertEquals(intercalations[1], false);
+        assertEquals(lunarDates[2], KoreanLunarCalendar.INVALID_DATE);
+        assertEquals(lunarDates[3], 20170502);
+        assertEquals(lunarDates[4], KoreanLunarCalendar.INVALID_DATE);
+
+        int[] solarResults = new int[solarDates.length];
+        KoreanLunarCalendar.lunarToSolar(lunarDates, intercalations, solarResults);
 
-}
\ No newline at end of file
+        assertEquals(solarResults[0], 20170624);
+        assertEquals(solarResults[1], 19560303);
+        assertEquals(solarResults[2], KoreanLunarCalendar.INVALID_DATE);
+        assertEquals(solarResults[3], 20170625);
+    }
+
+    @Test
+    public void testParallelBulkConversion() throws InterruptedException {
+        int[] solarDates = new int[100000];
+        for (int i = 0; i < solarDates.length; i++) {
+            solarDates[i] = (1000 + i % 1051) * 10000 + (i % 12 + 1) * 100 + (i % 31 + 1);
+        }
+
+        int[] expectedDates = new int[solarDates.length];
+        boolean[] expectedIntercalations = new boolean[solarDates.length];
+        KoreanLunarCalendar.solarToLunar(solarDates, expectedDates, expectedIntercalations);
+
+        int[] lunarDates = new int[solarDates.length];
+        boolean[] intercalations = new boolean[solarDates.length];
+        KoreanLunarCalendar.parallelSolarToLunar(solarDates, lunarDates, intercalations);
+        for (int i = 0; i < solarDates.length; i++) {
+            assertEquals(lunarDates[i], expectedDates[i]);
+            assertEquals(intercalations[i], expectedIntercalations[i]);
+        }
+
+        int[] solarResults = new int[solarDates.length];
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            KoreanLunarCalendar.parallelLunarToSolar(lunarDates, intercalations, solarResults, executor, 4);
+        } finally {
+            executor.shutdown();
+        }
+        int[] expectedResults = new int[solarDates.length];
+        KoreanLunarCalendar.lunarToSolar(lunarDates, intercalations, expectedResults);
+        for (int i = 0; i < solarDates.length; i++) {
+            assertEquals(solarResults[i], expectedResults[i]);
+        }
+    }
+
+    @Test
+    public void testCursor() {
+        // 2017-06-23 is the last day of lunar month 5, followed by intercalation month 5
+        LunarDateCursor cursor = KoreanLunarCalendar.cursor(20170623, 20170625);
+
+        assertTrue(cursor.next());
+        assertEquals(cursor.getLunarDate().getIsoFormat(), "2017-05-29");
+        assertTrue(cursor.next());
+        assertEquals(cursor.getLunarDate().getIsoFormat(), "2017-05-01 Intercalation");
+        assertEquals(cursor.getSolarDate().getIsoFormat(), "2017-06-24");
+        assertTrue(cursor.next());
+        assertEquals(cursor.getLunarDate().getIsoFormat(), "2017-05-02 Intercalation");
+        assertFalse(cursor.next());
+    }
+
+    @Test
+    public void testRange() {
+        LunarDate[] lunarDates = KoreanLunarCalendar.range(20161201, 20180131).parallel().toArray(LunarDate[]::new);
+
+        assertEquals(lunarDates.length, 427);
+        assertEquals(lunarDates[0], KoreanLunarCalendar.toLunarDate(2016, 12, 1));
+        assertEquals(lunarDates[426], KoreanLunarCalendar.toLunarDate(2018, 1, 31));
+        for (int i = 0; i < lunarDates.length; i++) {
+            assertEquals(lunarDates[i], lunarDates[i].toSolarDate().toLunarDate());
+        }
+    }
+}
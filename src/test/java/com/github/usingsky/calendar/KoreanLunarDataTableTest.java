@@ -0,0 +1,164 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.Test;
+
+public class KoreanLunarDataTableTest {
+
+    @Test
+    public void testBuiltInRange() {
+        KoreanLunarDataTable table = KoreanLunarDataTable.current();
+
+        assertEquals(table.getBaseYear(), 1000);
+        assertEquals(table.getMaxYear(), 2050);
+        assertEquals(table.getLunarMinDate(), 10000101);
+        assertEquals(table.getLunarMaxDate(), 20501118);
+        assertEquals(table.getSolarMinDate(), 10000213);
+        assertEquals(table.getSolarMaxDate(), 20501231);
+        assertEquals(table.getDayCount(), KoreanLunarCalendar.getMaxAbsDays());
+        assertFalse(table.hasDayIndex());
+    }
+
+    @Test
+    public void testMappedFile() throws IOException {
+        KoreanLunarDataTable table = KoreanLunarDataTable.current();
+        Path file = File.createTempFile("korean-lunar", ".bin").toPath();
+        try {
+            table.write(file, true);
+            assertEquals(Files.size(file), 28 + 4L * 1051 + 4L * table.getDayCount());
+
+            KoreanLunarDataTable mapped = KoreanLunarDataTable.map(file);
+            assertEquals(mapped, table);
+            assertTrue(mapped.hasDayIndex());
+            assertEquals(mapped.getLunarMaxDate(), 20501118);
+
+            IntBuffer dayIndex = mapped.getDayIndex();
+            for (int absDays = 1; absDays <= table.getDayCount(); absDays += 97) {
+                assertEquals(dayIndex.get(absDays - 1), KoreanLunarCalendar.getPackedLunarDateByAbsDays(absDays));
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testExport() throws IOException {
+        Path file = File.createTempFile("korean-lunar", ".bin").toPath();
+        try {
+            assertEquals(KoreanLunarDataTable.export(file, true), Files.size(file));
+            KoreanLunarDataTable mapped = KoreanLunarDataTable.map(file);
+            assertEquals(mapped, KoreanLunarDataTable.current());
+            assertTrue(mapped.hasDayIndex());
+
+            assertEquals(KoreanLunarDataTable.export(file, false), 28 + 4L * 1051);
+            assertFalse(KoreanLunarDataTable.map(file).hasDayIndex());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testSubRange() throws IOException {
+        // lunar 1900-01-01 is solar 1900-01-31
+        int[] yearData = new int[101];
+        for (int i = 0; i < yearData.length; i++) {
+            yearData[i] = KoreanLunarCalendar.getLunarData(1900 + i);
+        }
+        KoreanLunarDataTable table = new KoreanLunarDataTable(1900, 30, yearData);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        table.write(out, false);
+        KoreanLunarDataTable read = KoreanLunarDataTable.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(read, table);
+        assertFalse(read.hasDayIndex());
+        assertEquals(read.getSolarMinDate(), 19000131);
+        assertEquals(read.getSolarMaxDate(), 20001231);
+        LunarDate lunarMax = KoreanLunarCalendar.toLunarDate(2000, 12, 31);
+        assertEquals(read.getLunarMaxDate(), lunarMax.getYear() * 10000 + lunarMax.getMonth() * 100 + lunarMax.getDay());
+
+        int[] dayIndex = read.buildDayIndex();
+        int offset = KoreanLunarCalendar.getLunarAbsDays(1900, 1, 1, false) - 1;
+        for (int i = 0; i < dayIndex.length; i += 31) {
+            assertEquals(dayIndex[i], KoreanLunarCalendar.getPackedLunarDateByAbsDays(offset + i + 1));
+        }
+    }
+
+    @Test
+    public void testInvalidData() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KoreanLunarDataTable.current().write(out, false);
+        byte[] bytes = out.toByteArray();
+
+        byte[] corrupted = bytes.clone();
+        corrupted[40] ^= 0x01;
+        checkInvalid(corrupted);
+
+        byte[] badMagic = bytes.clone();
+        badMagic[0] = 'X';
+        checkInvalid(badMagic);
+
+        byte[] truncated = new byte[bytes.length - 4];
+        System.arraycopy(bytes, 0, truncated, 0, truncated.length);
+        checkInvalid(truncated);
+
+        try {
+            // month lengths no longer add up to the year length
+            new KoreanLunarDataTable(2017, 30, new int[] { KoreanLunarCalendar.getLunarData(2017) ^ 0x01 });
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testInvalidDayIndex() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        KoreanLunarDataTable.current().write(out, true);
+        byte[] bytes = out.toByteArray();
+
+        byte[] corrupted = bytes.clone();
+        corrupted[bytes.length / 2] ^= 0x01;
+        checkInvalid(corrupted);
+
+        // version 1 left the day index out of the checksum
+        byte[] version1 = bytes.clone();
+        version1[7] = 1;
+        checkInvalid(version1);
+    }
+
+    @Test
+    public void testLoadConfiguredFailure() throws IOException {
+        Path file = File.createTempFile("korean-lunar", ".bin").toPath();
+        try {
+            Files.write(file, new byte[] { 'X' });
+            System.setProperty(KoreanLunarDataTable.FILE_PROPERTY, file.toString());
+            assertNull(KoreanLunarDataTable.loadConfigured());
+            assertNotNull(KoreanLunarDataTable.getLoadError());
+        } finally {
+            System.clearProperty(KoreanLunarDataTable.FILE_PROPERTY);
+            Files.delete(file);
+        }
+    }
+
+    private void checkInvalid(byte[] bytes) {
+        try {
+            KoreanLunarDataTable.read(new ByteArrayInputStream(bytes));
+            fail();
+        } catch (IOException e) {
+        }
+    }
+}
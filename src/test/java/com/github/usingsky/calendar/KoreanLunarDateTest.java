@@ -0,0 +1,98 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.chrono.Chronology;
+import java.time.format.ResolverStyle;
+import java.time.temporal.ChronoField;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.time.temporal.TemporalField;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class KoreanLunarDateTest {
+
+    @Test
+    public void testLocalDateConversion() {
+        KoreanLunarDate lunarDate = KoreanLunarDate.from(LocalDate.of(2017, 6, 24));
+
+        assertEquals(lunarDate, KoreanLunarDate.of(2017, 5, 1, true));
+        assertEquals(lunarDate.getIsoFormat(), "2017-05-01 Intercalation");
+        assertEquals(LocalDate.from(KoreanLunarDate.of(1956, 1, 21)), LocalDate.of(1956, 3, 3));
+        assertEquals(KoreanLunarChronology.INSTANCE.date(LocalDate.of(1000, 2, 13)), KoreanLunarDate.of(1000, 1, 1));
+    }
+
+    @Test
+    public void testPlusMonths() {
+        KoreanLunarDate lunarDate = KoreanLunarDate.of(2017, 4, 30);
+
+        // 2017 : month 4 has 30 days, month 5 and intercalation month 5 have 29, month 6 has 30
+        assertEquals(lunarDate.plus(1, ChronoUnit.MONTHS), KoreanLunarDate.of(2017, 5, 29));
+        assertEquals(lunarDate.plus(2, ChronoUnit.MONTHS), KoreanLunarDate.of(2017, 5, 29, true));
+        assertEquals(lunarDate.plus(3, ChronoUnit.MONTHS), KoreanLunarDate.of(2017, 6, 30));
+        assertEquals(KoreanLunarDate.of(2017, 5, 1, true).plus(1, ChronoUnit.YEARS), KoreanLunarDate.of(2018, 5, 1));
+        assertEquals(lunarDate.until(KoreanLunarDate.of(2017, 6, 30), ChronoUnit.MONTHS), 3L);
+        assertEquals(lunarDate.until(KoreanLunarDate.of(2017, 6, 29), ChronoUnit.MONTHS), 2L);
+    }
+
+    @Test
+    public void testAdjusters() {
+        KoreanLunarDate lunarDate = KoreanLunarDate.of(2017, 5, 10, true);
+
+        assertEquals(lunarDate.with(TemporalAdjusters.firstDayOfMonth()), KoreanLunarDate.of(2017, 5, 1, true));
+        assertEquals(lunarDate.with(TemporalAdjusters.lastDayOfMonth()), KoreanLunarDate.of(2017, 5, 29, true));
+        assertEquals(lunarDate.with(TemporalAdjusters.firstDayOfNextMonth()), KoreanLunarDate.of(2017, 6, 1));
+        assertEquals(lunarDate.with(TemporalAdjusters.firstDayOfYear()), KoreanLunarDate.of(2017, 1, 1));
+        assertEquals(lunarDate.lengthOfYear(), 384);
+        assertTrue(lunarDate.isLeapYear());
+    }
+
+    @Test
+    public void testProlepticMonth() {
+        KoreanLunarDate lunarDate = KoreanLunarDate.of(2017, 5, 10, true);
+        long prolepticMonth = lunarDate.getLong(ChronoField.PROLEPTIC_MONTH);
+        assertEquals(lunarDate.plus(1, ChronoUnit.MONTHS).getLong(ChronoField.PROLEPTIC_MONTH), prolepticMonth + 1);
+
+        Map<TemporalField, Long> fieldValues = new HashMap<TemporalField, Long>();
+        fieldValues.put(ChronoField.PROLEPTIC_MONTH, prolepticMonth);
+        fieldValues.put(ChronoField.DAY_OF_MONTH, 10L);
+        assertEquals(KoreanLunarChronology.INSTANCE.resolveDate(fieldValues, ResolverStyle.SMART), lunarDate);
+        assertTrue(fieldValues.isEmpty());
+
+        // intercalation month 5 of 2017 has 29 days
+        fieldValues.put(ChronoField.PROLEPTIC_MONTH, prolepticMonth);
+        fieldValues.put(ChronoField.DAY_OF_MONTH, 30L);
+        assertEquals(KoreanLunarChronology.INSTANCE.resolveDate(fieldValues, ResolverStyle.SMART),
+                KoreanLunarDate.of(2017, 5, 29, true));
+        fieldValues.put(ChronoField.PROLEPTIC_MONTH, prolepticMonth);
+        fieldValues.put(ChronoField.DAY_OF_MONTH, 30L);
+        assertEquals(KoreanLunarChronology.INSTANCE.resolveDate(fieldValues, ResolverStyle.LENIENT),
+                KoreanLunarDate.of(2017, 6, 1));
+
+        fieldValues.put(ChronoField.PROLEPTIC_MONTH, prolepticMonth);
+        fieldValues.put(ChronoField.YEAR, 2016L);
+        try {
+            KoreanLunarChronology.INSTANCE.resolveDate(fieldValues, ResolverStyle.SMART);
+            fail();
+        } catch (DateTimeException e) {
+        }
+    }
+
+    @Test
+    public void testServiceLoader() {
+        assertEquals(Chronology.of("KoreanLunar"), KoreanLunarChronology.INSTANCE);
+        assertEquals(Chronology.of("KoreanLunar").date(LocalDate.of(2017, 6, 24)), KoreanLunarDate.of(2017, 5, 1, true));
+    }
+
+    @Test(expected = DateTimeException.class)
+    public void testInvalidIntercalation() {
+        KoreanLunarDate.of(2017, 6, 1, true);
+    }
+}
@@ -0,0 +1,118 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+public class KoreanLunarFormatterTest {
+
+    @Test
+    public void testIsoDate() throws Exception {
+        char[] buf = new char[KoreanLunarFormatter.MAX_ISO_LENGTH];
+        int length = KoreanLunarFormatter.formatIsoDate(2017, 5, 1, true, buf, 0);
+        assertEquals(new String(buf, 0, length), "2017-05-01 Intercalation");
+
+        StringBuilder sb = new StringBuilder();
+        KoreanLunarFormatter.appendIsoDate(sb, 1956, 3, 3, false);
+        assertEquals(sb.toString(), "1956-03-03");
+
+        StringBuffer appendable = new StringBuffer();
+        KoreanLunarFormatter.appendIsoDate(appendable, 1000, 1, 1, false);
+        assertEquals(appendable.toString(), "1000-01-01");
+
+        ByteBuffer bytes = ByteBuffer.allocate(KoreanLunarFormatter.MAX_ISO_LENGTH);
+        KoreanLunarFormatter.putIsoDate(bytes, 2050, 11, 18, true);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.US_ASCII),
+                "2050-11-18 Intercalation");
+    }
+
+    @Test
+    public void testIsoDateIntRange() throws Exception {
+        String min = "-2147483648--2147483648--2147483648 Intercalation";
+        assertEquals(min.length(), KoreanLunarFormatter.MAX_ISO_LENGTH);
+
+        char[] buf = new char[KoreanLunarFormatter.MAX_ISO_LENGTH];
+        int length = KoreanLunarFormatter.formatIsoDate(Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, true,
+                buf, 0);
+        assertEquals(new String(buf, 0, length), min);
+        length = KoreanLunarFormatter.formatIsoDate(Integer.MAX_VALUE, 1, -1, true, buf, 0);
+        assertEquals(new String(buf, 0, length), "2147483647-01--1 Intercalation");
+
+        StringBuilder sb = new StringBuilder();
+        KoreanLunarFormatter.appendIsoDate(sb, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, true);
+        assertEquals(sb.toString(), min);
+
+        ByteBuffer bytes = ByteBuffer.allocate(KoreanLunarFormatter.MAX_ISO_LENGTH);
+        KoreanLunarFormatter.putIsoDate(bytes, Integer.MIN_VALUE, Integer.MIN_VALUE, Integer.MIN_VALUE, true);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.US_ASCII), min);
+    }
+
+    @Test
+    public void testGapja() throws Exception {
+        String gapja = "\uC815\uC720\uB144 \uBCD1\uC624\uC6D4 \uC784\uC624\uC77C (\uC724\uC6D4)";
+        String chineseGapja = "\u4E01\u9149\u5E74 \u4E19\u5348\u6708 \u58EC\u5348\u65E5 (\u958F\u6708)";
+
+        char[] buf = new char[KoreanLunarFormatter.MAX_GAPJA_LENGTH];
+        int length = KoreanLunarFormatter.formatGapja(2017, 5, 1, true, buf, 0);
+        assertEquals(new String(buf, 0, length), gapja);
+        length = KoreanLunarFormatter.formatChineseGapja(2017, 5, 1, true, buf, 0);
+        assertEquals(new String(buf, 0, length), chineseGapja);
+
+        StringBuilder sb = new StringBuilder();
+        KoreanLunarFormatter.appendGapja(sb, 2017, 5, 1, true);
+        assertEquals(sb.toString(), gapja);
+
+        StringBuffer appendable = new StringBuffer();
+        KoreanLunarFormatter.appendChineseGapja(appendable, 2017, 5, 1, true);
+        assertEquals(appendable.toString(), chineseGapja);
+
+        ByteBuffer bytes = ByteBuffer.allocate(KoreanLunarFormatter.MAX_GAPJA_BYTES);
+        KoreanLunarFormatter.putGapja(bytes, 2017, 5, 1, true);
+        assertEquals(bytes.position(), KoreanLunarFormatter.MAX_GAPJA_BYTES);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8), gapja);
+
+        bytes.clear();
+        KoreanLunarFormatter.putChineseGapja(bytes, 2017, 5, 1, true);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8), chineseGapja);
+
+        assertEquals(KoreanLunarFormatter.getGapja(0), "\uAC11\uC790");
+        assertEquals(KoreanLunarFormatter.getChineseGapja(59), "\u7678\u4EA5");
+        assertEquals(KoreanLunarCalendar.getInstance().getGapjaString(), "\uAC11\uC790\uB144 \uAC11\uC790\uC6D4 \uAC11\uC790\uC77C");
+    }
+
+    @Test
+    public void testInvalidGapja() throws Exception {
+        String cycle0 = "\uAC11\uC790\uB144 \uAC11\uC790\uC6D4 \uAC11\uC790\uC77C";
+
+        char[] buf = new char[KoreanLunarFormatter.MAX_GAPJA_LENGTH];
+        int length = KoreanLunarFormatter.formatGapja(2051, 1, 1, false, buf, 0);
+        assertEquals(new String(buf, 0, length), cycle0);
+        length = KoreanLunarFormatter.formatGapja(2017, 13, 1, false, buf, 0);
+        assertEquals(new String(buf, 0, length), cycle0);
+        length = KoreanLunarFormatter.formatGapja(2017, 2, 31, false, buf, 0);
+        assertEquals(new String(buf, 0, length), cycle0);
+
+        StringBuilder sb = new StringBuilder();
+        KoreanLunarFormatter.appendGapja(sb, 999, 1, 1, false);
+        assertEquals(sb.toString(), cycle0);
+
+        ByteBuffer bytes = ByteBuffer.allocate(KoreanLunarFormatter.MAX_GAPJA_BYTES);
+        KoreanLunarFormatter.putGapja(bytes, 2017, 14, 1, false);
+        assertEquals(new String(bytes.array(), 0, bytes.position(), StandardCharsets.UTF_8), cycle0);
+
+        try {
+            KoreanLunarFormatter.getGapja(60);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+        try {
+            KoreanLunarFormatter.getChineseGapja(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class KoreanLunarMetadataTest {
+
+    @Test
+    public void testLunarYear() {
+        assertEquals(KoreanLunarMetadata.getIntercalationMonth(2017), 5);
+        assertEquals(KoreanLunarMetadata.getLunarMonthCount(2017), 13);
+        assertEquals(KoreanLunarMetadata.getLunarMonthDays(2017, 4, false), 30);
+        assertEquals(KoreanLunarMetadata.getLunarMonthDays(2017, 5, false), 29);
+        assertEquals(KoreanLunarMetadata.getLunarMonthDays(2017, 5, true), 29);
+        assertEquals(KoreanLunarMetadata.getLunarMonthDays(2017, 6, false), 30);
+        assertEquals(KoreanLunarMetadata.getIntercalationMonth(2018), 0);
+
+        for (int year = KoreanLunarMetadata.getMinYear(); year <= KoreanLunarMetadata.getMaxYear(); year++) {
+            int mask = KoreanLunarMetadata.getLunarMonthMask(year);
+            int intercalationMonth = KoreanLunarMetadata.getIntercalationMonth(year);
+            int days = 0;
+            for (int month = 1; month <= 12; month++) {
+                int monthDays = KoreanLunarMetadata.getLunarMonthDays(year, month, false);
+                assertEquals(monthDays, (mask & (1 << (month - 1))) != 0 ? 30 : 29);
+                days += monthDays;
+            }
+            if (intercalationMonth > 0) {
+                int monthDays = KoreanLunarMetadata.getLunarMonthDays(year, intercalationMonth, true);
+                assertEquals(monthDays, (mask & KoreanLunarMetadata.INTERCALATION_MONTH_BIT) != 0 ? 30 : 29);
+                days += monthDays;
+            } else {
+                assertEquals(mask & KoreanLunarMetadata.INTERCALATION_MONTH_BIT, 0);
+            }
+            assertEquals(KoreanLunarMetadata.getLunarYearDays(year), days);
+        }
+    }
+
+    @Test
+    public void testSolarYear() {
+        assertTrue(KoreanLunarMetadata.isSolarLeapYear(2000));
+        assertFalse(KoreanLunarMetadata.isSolarLeapYear(1900));
+        assertFalse(KoreanLunarMetadata.isSolarLeapYear(1500));
+        assertEquals(KoreanLunarMetadata.getSolarYearDays(2016), 366);
+        assertEquals(KoreanLunarMetadata.getSolarMonthDays(2016, 2), 29);
+        assertEquals(KoreanLunarMetadata.getSolarMonthDays(2017, 2), 28);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testOutOfRange() {
+        KoreanLunarMetadata.getIntercalationMonth(2051);
+    }
+}
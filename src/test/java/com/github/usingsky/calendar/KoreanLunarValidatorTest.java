@@ -0,0 +1,71 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class KoreanLunarValidatorTest {
+
+    @Test
+    public void testSolarDate() {
+        assertEquals(KoreanLunarValidator.validateSolarDate(2017, 6, 24), KoreanLunarValidator.VALID);
+        assertEquals(KoreanLunarValidator.validateSolarDate(1000, 2, 12), KoreanLunarValidator.OUT_OF_RANGE);
+        assertEquals(KoreanLunarValidator.validateSolarDate(2051, 1, 1), KoreanLunarValidator.OUT_OF_RANGE);
+        assertEquals(KoreanLunarValidator.validateSolarDate(2017, 13, 1), KoreanLunarValidator.INVALID_MONTH);
+        assertEquals(KoreanLunarValidator.validateSolarDate(2017, 2, 29), KoreanLunarValidator.INVALID_DAY);
+        assertEquals(KoreanLunarValidator.validateSolarDate(2017, 2, 0), KoreanLunarValidator.INVALID_DAY);
+        assertEquals(KoreanLunarValidator.validateSolarDate(1582, 10, 10), KoreanLunarValidator.SOLAR_GAP);
+    }
+
+    @Test
+    public void testLunarDate() {
+        assertEquals(KoreanLunarValidator.validateLunarDate(2017, 5, 29, true), KoreanLunarValidator.VALID);
+        assertEquals(KoreanLunarValidator.validateLunarDate(2017, 5, 30, true), KoreanLunarValidator.NO_SUCH_DAY_30);
+        assertEquals(KoreanLunarValidator.validateLunarDate(2017, 6, 1, true),
+                KoreanLunarValidator.NO_SUCH_INTERCALATION_MONTH);
+        assertEquals(KoreanLunarValidator.validateLunarDate(2017, 6, 31, false), KoreanLunarValidator.INVALID_DAY);
+        assertEquals(KoreanLunarValidator.validateLunarDate(2050, 11, 19, false), KoreanLunarValidator.OUT_OF_RANGE);
+        assertEquals(KoreanLunarValidator.validateLunarDate(999, 12, 1, false), KoreanLunarValidator.OUT_OF_RANGE);
+
+        assertTrue(KoreanLunarValidator.isAccepted(KoreanLunarValidator.NO_SUCH_INTERCALATION_MONTH));
+        assertFalse(KoreanLunarValidator.isAccepted(KoreanLunarValidator.NO_SUCH_DAY_30));
+    }
+
+    @Test
+    public void testMatchesCalendar() {
+        KoreanLunarCalendar calendar = KoreanLunarCalendar.getInstance();
+        for (int year = 998; year <= 2052; year += 3) {
+            for (int month = 0; month <= 13; month++) {
+                for (int day = 0; day <= 42; day++) {
+                    assertEquals(KoreanLunarValidator.isAccepted(KoreanLunarValidator.validateSolarDate(year, month, day)),
+                            calendar.setSolarDate(year, month, day));
+                    for (int leap = 0; leap < 2; leap++) {
+                        assertEquals(KoreanLunarValidator.isAccepted(
+                                KoreanLunarValidator.validateLunarDate(year, month, day, leap == 1)),
+                                calendar.setLunarDate(year, month, day, leap == 1));
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testBulk() {
+        int[] lunarDates = { 20170529, 20170530, 20170601, 20501119 };
+        boolean[] intercalations = { true, true, true, false };
+        int[] codes = new int[lunarDates.length];
+
+        assertEquals(KoreanLunarValidator.validateLunarDates(lunarDates, intercalations, codes), 3);
+        assertEquals(codes[0], KoreanLunarValidator.VALID);
+        assertEquals(codes[1], KoreanLunarValidator.NO_SUCH_DAY_30);
+        assertEquals(codes[2], KoreanLunarValidator.NO_SUCH_INTERCALATION_MONTH);
+        assertEquals(codes[3], KoreanLunarValidator.OUT_OF_RANGE);
+
+        int[] solarDates = { 20170624, 15821010, 20170229 };
+        assertEquals(KoreanLunarValidator.validateSolarDates(solarDates, codes, 1, 3), 2);
+        assertEquals(codes[1], KoreanLunarValidator.SOLAR_GAP);
+        assertEquals(codes[2], KoreanLunarValidator.INVALID_DAY);
+    }
+}
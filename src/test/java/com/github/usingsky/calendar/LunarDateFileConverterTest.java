@@ -0,0 +1,112 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import com.github.usingsky.calendar.LunarDateFileConverter.OutputFormat;
+
+public class LunarDateFileConverterTest {
+
+    private static final String INPUT = "id,date,name\n"
+            + "1,2017-06-24,a\r\n"
+            + "2,\"20170724\",b\n"
+            + "3,1582-10-10,gap\n"
+            + "4,2017-13-01,month\n"
+            + "5\n"
+            + "\n"
+            + "6,10000213";
+
+    @Test
+    public void testFormats() throws IOException {
+        assertEquals(convert(new LunarDateFileConverter(OutputFormat.ISO, 1, ','), INPUT),
+                "id,date,name,\n"
+                + "1,2017-06-24,a,2017-05-01 Intercalation\r\n"
+                + "2,\"20170724\",b,2017-06-02\n"
+                + "3,1582-10-10,gap,\n"
+                + "4,2017-13-01,month,\n"
+                + "5,\n"
+                + ",\n"
+                + "6,10000213,1000-01-01");
+
+        LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(2017, 6, 24);
+        assertEquals(convert(new LunarDateFileConverter(OutputFormat.GAPJA, 0, '\t'), "2017-06-24\n"),
+                "2017-06-24\t" + lunarDate.getGapjaString() + "\n");
+        assertEquals(convert(new LunarDateFileConverter(OutputFormat.CHINESE_GAPJA, 0, '\t'), "2017-06-24\n"),
+                "2017-06-24\t" + lunarDate.getChineseGapJaString() + "\n");
+    }
+
+    @Test
+    public void testChunks() throws IOException {
+        StringBuilder input = new StringBuilder();
+        StringBuilder expected = new StringBuilder();
+        char[] iso = new char[KoreanLunarFormatter.MAX_ISO_LENGTH];
+        for (int year = 1990; year <= 2050; year++) {
+            for (int month = 1; month <= 12; month++) {
+                int day = (year + month) % 28 + 1;
+                String line = (year % 7 == 0 ? "x" : "") + "|"
+                        + new String(iso, 0, KoreanLunarFormatter.formatIsoDate(year, month, day, false, iso, 0));
+                LunarDate lunarDate = KoreanLunarCalendar.toLunarDate(year, month, day);
+                input.append(line).append('\n');
+                expected.append(line).append('|').append(lunarDate.getGapjaString()).append('\n');
+            }
+        }
+        // a line longer than the chunks
+        input.append("long").append(new String(new char[100]).replace('\0', '-')).append('\n');
+        expected.append("long").append(new String(new char[100]).replace('\0', '-')).append("|\n");
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int chunkSize : new int[] { 1, 17, 4096 }) {
+                LunarDateFileConverter converter = new LunarDateFileConverter(OutputFormat.GAPJA, 1, '|', chunkSize, 2);
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                long converted = converter.convert(Channels.newChannel(new ByteArrayInputStream(
+                        input.toString().getBytes(StandardCharsets.UTF_8))), Channels.newChannel(out), executor);
+                assertEquals(converted, 61L * 12);
+                assertEquals(new String(out.toByteArray(), StandardCharsets.UTF_8), expected.toString());
+
+                assertEquals(convertFile(converter, input.toString()), expected.toString());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidDelimiter() {
+        new LunarDateFileConverter(OutputFormat.ISO, 0, '\n');
+    }
+
+    private static String convert(LunarDateFileConverter converter, String input) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        converter.convert(Channels.newChannel(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8))),
+                Channels.newChannel(out));
+        String result = new String(out.toByteArray(), StandardCharsets.UTF_8);
+        assertEquals(convertFile(converter, input), result);
+        return result;
+    }
+
+    private static String convertFile(LunarDateFileConverter converter, String input) throws IOException {
+        Path in = File.createTempFile("lunar-input", ".csv").toPath();
+        Path out = File.createTempFile("lunar-output", ".csv").toPath();
+        try {
+            Files.write(in, input.getBytes(StandardCharsets.UTF_8));
+            converter.convert(in, out);
+            return new String(Files.readAllBytes(out), StandardCharsets.UTF_8);
+        } finally {
+            Files.delete(in);
+            Files.delete(out);
+        }
+    }
+}
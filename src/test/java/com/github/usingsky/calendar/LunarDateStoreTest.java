@@ -0,0 +1,114 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.github.usingsky.calendar.LunarEventResolver.DayFallback;
+import com.github.usingsky.calendar.LunarEventResolver.IntercalationFallback;
+
+public class LunarDateStoreTest {
+
+    private static final int[][] WINDOWS = { { 20170601, 20170731 }, { 20171231, 20180220 }, { 20200101, 20201231 },
+            { 20190101, 20211231 }, { 20170624, 20170624 } };
+
+    @Test
+    public void testRangeQueries() {
+        LunarEventResolver resolver = new LunarEventResolver(2015, 2025, IntercalationFallback.REGULAR_MONTH,
+                DayFallback.NEXT_DAY);
+        checkStore(new LunarDateStore(resolver), resolver);
+        checkStore(new LunarDateStore(resolver, true, 0), resolver);
+        LunarEventResolver skip = new LunarEventResolver(2015, 2025, IntercalationFallback.SKIP, DayFallback.SKIP);
+        checkStore(new LunarDateStore(skip), skip);
+    }
+
+    private void checkStore(LunarDateStore store, LunarEventResolver resolver) {
+        Random random = new Random(7);
+        List<Integer> dates = new ArrayList<Integer>();
+        // 2017 has an intercalation 5th month, 2023 an intercalation 2nd month
+        store.append(PackedDate.encodeLunar(2017, 5, 1, true));
+        store.append(PackedDate.encodeLunar(2023, 2, 29, true));
+        dates.add(PackedDate.encodeLunar(2017, 5, 1, true));
+        dates.add(PackedDate.encodeLunar(2023, 2, 29, true));
+        for (int round = 0; round < 3; round++) {
+            int[] batch = new int[round == 0 ? 20000 : 300];
+            for (int i = 0; i < batch.length; i++) {
+                int year;
+                int month;
+                int day;
+                do {
+                    year = 1950 + random.nextInt(70);
+                    month = 1 + random.nextInt(12);
+                    day = 1 + random.nextInt(30);
+                } while (!KoreanLunarCalendar.checkValidDate(true, false, year, month, day));
+                batch[i] = PackedDate.encodeLunar(year, month, day, false);
+                dates.add(batch[i]);
+            }
+            assertEquals(store.append(batch, 0, batch.length), dates.size() - batch.length);
+            if (round == 1) {
+                store.index();
+            }
+            for (int[] window : WINDOWS) {
+                int[] expected = findAll(store, resolver, window[0], window[1]);
+                assertTrue(Arrays.equals(store.find(window[0], window[1]), expected));
+                assertEquals(store.count(window[0], window[1]), (long) expected.length);
+            }
+        }
+        assertEquals(store.size(), dates.size());
+        for (int row = 0; row < dates.size(); row++) {
+            assertEquals(store.get(row), dates.get(row).intValue());
+        }
+    }
+
+    private static int[] findAll(LunarDateStore store, LunarEventResolver resolver, int fromSolarDate, int toSolarDate) {
+        List<long[]> occurrences = new ArrayList<long[]>();
+        for (int row = 0; row < store.size(); row++) {
+            for (int year = resolver.getFromYear(); year <= resolver.getToYear(); year++) {
+                int solarDate = store.getSolarDate(row, year);
+                if (solarDate != KoreanLunarCalendar.INVALID_DATE && solarDate >= fromSolarDate
+                        && solarDate <= toSolarDate) {
+                    int packedLunar = store.get(row);
+                    occurrences.add(new long[] { solarDate, LunarEventResolver.getSlot(PackedDate.getLunarMonth(packedLunar),
+                            PackedDate.getLunarDay(packedLunar), PackedDate.isIntercalation(packedLunar)), row });
+                }
+            }
+        }
+        long[] keys = new long[occurrences.size()];
+        for (int i = 0; i < keys.length; i++) {
+            long[] occurrence = occurrences.get(i);
+            keys[i] = (occurrence[0] * 1000 + occurrence[1]) << 24 | occurrence[2];
+        }
+        Arrays.sort(keys);
+        int[] rows = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            rows[i] = (int) (keys[i] & 0xFFFFFF);
+        }
+        return rows;
+    }
+
+    @Test
+    public void testAppend() {
+        LunarDateStore store = new LunarDateStore(new LunarEventResolver(2017, 2017, IntercalationFallback.SKIP,
+                DayFallback.SKIP));
+        // the intercalation flag of a month without intercalation is cleared
+        assertEquals(store.append(PackedDate.encodeLunar(2017, 6, 2, true)), 0);
+        assertEquals(store.get(0), PackedDate.encodeLunar(2017, 6, 2, false));
+        assertEquals(store.getSolarDate(0, 2017), 20170724);
+        assertTrue(Arrays.equals(store.find(20170724, 20170724), new int[] { 0 }));
+
+        try {
+            store.append(new int[] { PackedDate.encodeLunar(2017, 1, 1, false), PackedDate.encodeLunar(2017, 1, 31, false) },
+                    0, 2);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals(store.size(), 1);
+        }
+    }
+}
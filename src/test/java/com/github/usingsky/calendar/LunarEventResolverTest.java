@@ -0,0 +1,93 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import com.github.usingsky.calendar.LunarEventResolver.DayFallback;
+import com.github.usingsky.calendar.LunarEventResolver.IntercalationFallback;
+
+public class LunarEventResolverTest {
+
+    @Test
+    public void testHolidays() {
+        LunarEventResolver resolver = new LunarEventResolver(2017, 2020, IntercalationFallback.SKIP, DayFallback.SKIP);
+
+        assertEquals(resolver.resolve(LunarEventResolver.SEOLLAL, 2017), 20170128);
+        assertEquals(resolver.resolve(LunarEventResolver.CHUSEOK, 2017), 20171004);
+        assertEquals(resolver.resolve(LunarEventResolver.BUDDHAS_BIRTHDAY, 2018), 20180522);
+
+        int[] rules = { LunarEventResolver.SEOLLAL, LunarEventResolver.rule(5, 1, true) };
+        int[] solarDates = new int[rules.length * 4];
+        resolver.resolve(rules, solarDates);
+        assertEquals(solarDates[0], 20170128);
+        assertEquals(solarDates[1], 20170624);
+        assertEquals(solarDates[3], KoreanLunarCalendar.INVALID_DATE);
+    }
+
+    @Test
+    public void testFallback() {
+        // 2017 : month 5 and intercalation month 5 have 29 days, month 6 has 30 days
+        int rule = LunarEventResolver.rule(5, 30, false);
+        int intercalationRule = LunarEventResolver.rule(6, 1, true);
+
+        LunarEventResolver skip = new LunarEventResolver(2017, 2017, IntercalationFallback.SKIP, DayFallback.SKIP);
+        assertEquals(skip.resolve(rule, 2017), KoreanLunarCalendar.INVALID_DATE);
+        assertEquals(skip.resolve(intercalationRule, 2017), KoreanLunarCalendar.INVALID_DATE);
+
+        LunarEventResolver lastDay = new LunarEventResolver(2017, 2017, IntercalationFallback.REGULAR_MONTH,
+                DayFallback.LAST_DAY);
+        assertEquals(lastDay.resolve(rule, 2017), 20170623);
+        assertEquals(lastDay.resolve(intercalationRule, 2017), 20170723);
+
+        LunarEventResolver nextDay = new LunarEventResolver(2017, 2017, IntercalationFallback.SKIP,
+                DayFallback.NEXT_DAY);
+        // the month after month 5 is intercalation month 5
+        assertEquals(nextDay.resolve(rule, 2017), 20170624);
+        assertEquals(nextDay.resolve(LunarEventResolver.rule(5, 30, true), 2017), 20170723);
+    }
+
+    @Test
+    public void testRulesOfDay() {
+        LunarEventResolver resolver = new LunarEventResolver(1000, 2050, IntercalationFallback.REGULAR_MONTH,
+                DayFallback.LAST_DAY);
+        int[] rules = new int[LunarEventResolver.MAX_RULES_PER_DAY];
+
+        // 2017-06-23 : lunar 5/29 of a 29 day month
+        int count = resolver.getRules(20170623, rules);
+        assertEquals(count, 2);
+        assertEquals(rules[0], LunarEventResolver.rule(5, 29, false));
+        assertEquals(rules[1], LunarEventResolver.rule(5, 30, false));
+
+        assertEquals(resolver.getRules(15821010, rules), 0);
+
+        checkRulesOfDay(resolver);
+        checkRulesOfDay(new LunarEventResolver(1000, 2050, IntercalationFallback.REGULAR_MONTH, DayFallback.NEXT_DAY));
+    }
+
+    private void checkRulesOfDay(LunarEventResolver resolver) {
+        int[] rules = new int[LunarEventResolver.MAX_RULES_PER_DAY];
+        LunarDateCursor cursor = KoreanLunarCalendar.cursor(10000213, 20501231);
+        while (cursor.next()) {
+            int solarDate = cursor.getSolarYear() * 10000 + cursor.getSolarMonth() * 100 + cursor.getSolarDay();
+            int count = resolver.getRules(solarDate, rules);
+            if (solarDate >= 15821005 && solarDate <= 15821014) {
+                assertEquals(count, 0);
+                continue;
+            }
+            int rule = LunarEventResolver.rule(cursor.getLunarMonth(), cursor.getLunarDay(), cursor.isIntercalation());
+            boolean found = false;
+            for (int i = 0; i < count; i++) {
+                found |= rules[i] == rule;
+                int lunarYear = cursor.getLunarYear();
+                // NEXT_DAY moves day 30 of the last month into the next year
+                if (resolver.resolve(rules[i], lunarYear) != solarDate) {
+                    lunarYear--;
+                }
+                assertEquals(resolver.resolve(rules[i], lunarYear), solarDate);
+            }
+            assertTrue(found);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.github.usingsky.calendar;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class PackedDateTest {
+
+    @Test
+    public void testEncodeDecode() {
+        int packed = PackedDate.encodeLunar(2017, 5, 1, true);
+        assertEquals(PackedDate.getLunarYear(packed), 2017);
+        assertEquals(PackedDate.getLunarMonth(packed), 5);
+        assertEquals(PackedDate.getLunarDay(packed), 1);
+        assertTrue(PackedDate.isIntercalation(packed));
+
+        packed = PackedDate.encodeSolar(1582, 10, 41);
+        assertEquals(PackedDate.getSolarYear(packed), 1582);
+        assertEquals(PackedDate.getSolarMonth(packed), 10);
+        assertEquals(PackedDate.getSolarDay(packed), 41);
+
+        long pair = PackedDate.encodePair(PackedDate.encodeLunar(2050, 11, 18, false), PackedDate.encodeSolar(2050, 12, 31));
+        assertEquals(PackedDate.getLunar(pair), PackedDate.encodeLunar(2050, 11, 18, false));
+        assertEquals(PackedDate.getSolar(pair), PackedDate.encodeSolar(2050, 12, 31));
+    }
+
+    @Test
+    public void testConversion() {
+        int solar = PackedDate.encodeSolar(2017, 6, 24);
+        int lunar = PackedDate.toLunar(solar);
+        assertEquals(lunar, PackedDate.encodeLunar(2017, 5, 1, true));
+        assertEquals(PackedDate.toSolar(lunar), solar);
+        assertEquals(PackedDate.lunarToPair(lunar), PackedDate.encodePair(lunar, solar));
+        assertEquals(PackedDate.lunarToPair(PackedDate.encodeLunar(2017, 6, 1, true)),
+                PackedDate.solarToPair(PackedDate.encodeSolar(2017, 7, 23)));
+
+        assertEquals(PackedDate.toLunar(PackedDate.encodeSolar(1582, 10, 10)), PackedDate.INVALID);
+        assertEquals(PackedDate.toSolar(PackedDate.encodeLunar(2050, 11, 19, false)), PackedDate.INVALID);
+        assertEquals(PackedDate.toLunar(PackedDate.INVALID), PackedDate.INVALID);
+    }
+
+    @Test
+    public void testOrder() {
+        int[] solars = new int[4000];
+        int[] lunars = new int[solars.length];
+        LunarDateCursor cursor = KoreanLunarCalendar.cursor(20000101, 20301231);
+        for (int i = 0; i < solars.length && cursor.next(); i++) {
+            solars[i] = PackedDate.encodeSolar(cursor.getSolarYear(), cursor.getSolarMonth(), cursor.getSolarDay());
+        }
+        PackedDate.toLunar(solars, lunars);
+
+        cursor = KoreanLunarCalendar.cursor(20000101, 20301231);
+        for (int i = 0; i < solars.length && cursor.next(); i++) {
+            assertEquals(lunars[i], PackedDate.encodeLunar(cursor.getLunarYear(), cursor.getLunarMonth(),
+                    cursor.getLunarDay(), cursor.isIntercalation()));
+            if (i > 0) {
+                assertTrue(PackedDate.compare(solars[i - 1], solars[i]) < 0);
+                assertTrue(PackedDate.compare(lunars[i - 1], lunars[i]) < 0);
+            }
+        }
+
+        int[] back = new int[solars.length];
+        PackedDate.toSolar(lunars, back);
+        for (int i = 0; i < solars.length; i++) {
+            assertEquals(back[i], solars[i]);
+        }
+    }
+
+    @Test
+    public void testArithmetic() {
+        int lunar = PackedDate.encodeLunar(2017, 5, 1, true);
+        assertEquals(PackedDate.plusDays(lunar, 48), PackedDate.encodeLunar(2017, 6, 20, false));
+        assertEquals(PackedDate.plusDays(lunar, -1), PackedDate.encodeLunar(2017, 5, 29, false));
+        assertEquals(PackedDate.plusMonths(PackedDate.encodeLunar(2017, 5, 29, false), 1), lunar + 28);
+        // intercalation month 5 of 2017 has 29 days
+        assertEquals(PackedDate.plusMonths(PackedDate.encodeLunar(2017, 4, 30, false), 2),
+                PackedDate.encodeLunar(2017, 5, 29, true));
+        assertEquals(PackedDate.plusMonths(lunar, 12), PackedDate.encodeLunar(2018, 5, 1, false));
+        assertEquals(PackedDate.daysBetween(PackedDate.encodeLunar(2017, 5, 1, false), lunar), 29);
+        // the README example : 2017-06-24 to 2018-06-14
+        assertEquals(PackedDate.daysBetween(lunar, PackedDate.encodeLunar(2018, 5, 1, false)), 355);
+        assertEquals(PackedDate.monthsBetween(PackedDate.encodeLunar(2017, 5, 2, false), lunar), 0);
+        assertEquals(PackedDate.monthsBetween(PackedDate.encodeLunar(2017, 5, 1, false), lunar), 1);
+
+        assertEquals(PackedDate.plusDays(PackedDate.encodeLunar(2050, 11, 18, false), 1), PackedDate.INVALID);
+        assertEquals(PackedDate.plusMonths(PackedDate.encodeLunar(2050, 10, 30, false), 1), PackedDate.INVALID);
+        assertEquals(PackedDate.plusDays(PackedDate.encodeLunar(1000, 1, 1, false), -1), PackedDate.INVALID);
+        assertEquals(PackedDate.plusDays(PackedDate.encodeLunar(2017, 1, 31, false), 1), PackedDate.INVALID);
+        try {
+            PackedDate.daysBetween(lunar, PackedDate.INVALID);
+            fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testArithmeticMatchesKoreanLunarDate() {
+        Random random = new Random(3);
+        int[] lunars = new int[10000];
+        int[] others = new int[lunars.length];
+        for (int i = 0; i < lunars.length; i++) {
+            lunars[i] = randomLunar(random);
+            others[i] = randomLunar(random);
+        }
+        int[] plusDays = new int[lunars.length];
+        int[] plusMonths = new int[lunars.length];
+        int[] daysBetween = new int[lunars.length];
+        PackedDate.plusDays(lunars, 100, plusDays, 0, lunars.length);
+        PackedDate.plusMonths(lunars, -25, plusMonths, 0, lunars.length);
+        PackedDate.daysBetween(lunars, others, daysBetween, 0, lunars.length);
+
+        for (int i = 0; i < lunars.length; i++) {
+            KoreanLunarDate date = toKoreanLunarDate(lunars[i]);
+            KoreanLunarDate other = toKoreanLunarDate(others[i]);
+            assertEquals(plusDays[i], toPacked(date.plusDays(100)));
+            assertEquals(plusMonths[i], toPacked(date.plusMonths(-25)));
+            assertEquals(daysBetween[i], (int) date.until(other, ChronoUnit.DAYS));
+            assertEquals(PackedDate.monthsBetween(lunars[i], others[i]), (int) date.until(other, ChronoUnit.MONTHS));
+        }
+    }
+
+    private static int randomLunar(Random random) {
+        int packedLunar;
+        do {
+            packedLunar = PackedDate.toLunar(PackedDate.encodeSolar(1003 + random.nextInt(1046),
+                    1 + random.nextInt(12), 1 + random.nextInt(28)));
+        } while (packedLunar == PackedDate.INVALID);
+        return packedLunar;
+    }
+
+    private static KoreanLunarDate toKoreanLunarDate(int packedLunar) {
+        return KoreanLunarDate.of(PackedDate.getLunarYear(packedLunar), PackedDate.getLunarMonth(packedLunar),
+                PackedDate.getLunarDay(packedLunar), PackedDate.isIntercalation(packedLunar));
+    }
+
+    private static int toPacked(KoreanLunarDate date) {
+        LunarDate lunarDate = date.toLunarDate();
+        return PackedDate.encodeLunar(lunarDate.getYear(), lunarDate.getMonth(), lunarDate.getDay(),
+                lunarDate.isIntercalation());
+    }
+}